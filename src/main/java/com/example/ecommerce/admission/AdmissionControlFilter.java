@@ -0,0 +1,102 @@
+package com.example.ecommerce.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the product pages and APIs. Each request
+ * first takes a token from its client's bucket for the matching endpoint
+ * (429 when empty) and then one of {@code catalog.admission.max-concurrent}
+ * in-flight slots shared by all clients (503 when none is free). Both
+ * rejections carry Retry-After.
+ * <p>
+ * Clients are told apart by remote address; behind a proxy, enable
+ * {@code server.forward-headers-strategy} so that is the real client. Idle
+ * buckets are dropped after ten minutes, by which time they are full anyway.
+ * <p>
+ * Decisions are counted as {@code admission.requests}, tagged with the
+ * endpoint and {@code result=admitted|rate_limited|overloaded};
+ * {@code admission.in_flight} gauges the slots in use.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT = "default";
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Semaphore inFlight;
+    private final Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(properties.getMaxConcurrent());
+        Gauge.builder("admission.in_flight", inFlight, s -> properties.getMaxConcurrent() - s.availablePermits())
+                .description("Product requests currently being served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String endpoint = DEFAULT_ENDPOINT;
+        AdmissionProperties.Limit limit = properties.getRateLimit();
+        for (Map.Entry<String, AdmissionProperties.Limit> entry : properties.getEndpoints().entrySet()) {
+            if (pathMatcher.match(entry.getValue().getPattern(), path)) {
+                endpoint = entry.getKey();
+                limit = entry.getValue();
+                break;
+            }
+        }
+
+        AdmissionProperties.Limit bucketLimit = limit;
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(endpoint + '|' + request.getRemoteAddr(),
+                key -> new TokenBucket(bucketLimit.getCapacity(), bucketLimit.getRefillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            reject(response, endpoint, "rate_limited", HttpStatus.TOO_MANY_REQUESTS,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)), "Rate limit exceeded");
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            reject(response, endpoint, "overloaded", HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy");
+            return;
+        }
+        try {
+            meterRegistry.counter("admission.requests", "endpoint", endpoint, "result", "admitted").increment();
+            chain.doFilter(request, response);
+        } finally {
+            // Asynchronous requests give their slot back once the handler returns
+            inFlight.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String endpoint, String result, HttpStatus status,
+                        long retryAfterSeconds, String message) throws IOException {
+        meterRegistry.counter("admission.requests", "endpoint", endpoint, "result", result).increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value(), message);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ecommerce.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link AdmissionControlFilter}, bound from
+ * {@code catalog.admission.*}. Each entry of {@code endpoints} applies its own
+ * token bucket to the paths matching its Ant-style pattern; the first
+ * matching entry wins and other paths use {@code rate-limit}.
+ */
+@ConfigurationProperties(prefix = "catalog.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    private int maxConcurrent = 200;
+    private Limit rateLimit = new Limit();
+    private Map<String, Limit> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+    public Limit getRateLimit() { return rateLimit; }
+    public void setRateLimit(Limit rateLimit) { this.rateLimit = rateLimit; }
+    public Map<String, Limit> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Limit> endpoints) { this.endpoints = endpoints; }
+
+    /**
+     * Token bucket per client: up to {@code capacity} requests in a burst,
+     * refilled at {@code refillPerSecond}.
+     */
+    public static class Limit {
+        private String pattern;
+        private int capacity = 1000;
+        private double refillPerSecond = 500;
+
+        public String getPattern() { return pattern; }
+        public void setPattern(String pattern) { this.pattern = pattern; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public double getRefillPerSecond() { return refillPerSecond; }
+        public void setRefillPerSecond(double refillPerSecond) { this.refillPerSecond = refillPerSecond; }
+    }
+}
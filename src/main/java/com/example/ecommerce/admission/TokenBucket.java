@@ -0,0 +1,48 @@
+package com.example.ecommerce.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the
+ * generic cell rate algorithm): each admitted request pushes it one refill
+ * interval further, and a request is admitted while it is no more than
+ * {@code capacity - 1} intervals ahead of now. Equivalent to a bucket of
+ * {@code capacity} tokens refilled at a constant rate, updated with one CAS.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and refill rate must be positive");
+        }
+        this.intervalNanos = (long) Math.ceil(1_000_000_000L / refillPerSecond);
+        this.burstNanos = intervalNanos * (capacity - 1);
+        // Starts full
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 when admitted, otherwise how many nanoseconds until a token
+     *         will be available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            // An idle bucket never holds more than capacity tokens
+            long start = Math.max(current, nowNanos);
+            long wait = start - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.event.ProductTombstones;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable, id-ordered array of every product, published through a volatile
+ * reference so list endpoints read it without locks or copying. Each committed
+ * write builds a patched copy of the array and swaps it in (copy-on-write).
+ * <p>
+ * A full reload from the repository happens at startup and whenever the
+ * snapshot is older than {@code catalog.snapshot.max-staleness}, which bounds
+ * how long writes made outside JPA (plain SQL) stay invisible. Until the first
+ * snapshot exists, reads fall back to the repository.
+ * <p>
+ * Change events can arrive out of order, so a patch only applies when it is
+ * newer than the version held. Only CREATED inserts a product, and deleted ids
+ * are kept as tombstones, so a late event never brings a deleted product back.
+ * <p>
+ * Every snapshot carries a strong ETag derived from the (id, version) pairs
+ * it holds, kept up to date incrementally as it is patched, so an unchanged
+ * catalog keeps the same tag across reloads and restarts. The tag also names
+ * the JSON layout of a product ({@link Snapshot#ETAG_FORMAT}), so a catalog
+ * cached in an older layout does not revalidate after an upgrade.
+ * <p>
+ * The products handed out are shared by all readers and must not be modified.
+ * Their JSON encoding is cached per product and survives patches of other
+ * products, so the list endpoint only serializes what changed. A gzip copy
+ * of the whole array is made once per snapshot, when first asked for.
+ */
+@Component
+public class CatalogSnapshot {
+
+    private volatile Snapshot current;
+    // Serializes writers (patches and reloads); readers never take it
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ProductTombstones deleted = new ProductTombstones();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final long maxStalenessNanos;
+
+    public CatalogSnapshot(@Value("${catalog.snapshot.max-staleness:5m}") Duration maxStaleness) {
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    public List<Product> getProducts() {
+        return getSnapshot().getProducts();
+    }
+
+    public Snapshot getSnapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            List<Product> products = productService.getAllProducts();
+            return new Snapshot(products.toArray(new Product[0]), new byte[products.size()][], hashOf(products),
+                    System.nanoTime(), productWriter());
+        }
+        if (System.nanoTime() - snapshot.loadedAt > maxStalenessNanos && writeLock.tryLock()) {
+            // One reader refreshes; concurrent readers keep using the old array
+            try {
+                snapshot = reload();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        writeLock.lock();
+        try {
+            reload();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        writeLock.lock();
+        try {
+            if (deleted.contains(event.getProductId())) {
+                return;
+            }
+            if (event.getType() == ProductChangeEvent.Type.DELETED) {
+                deleted.add(event.getProductId());
+            }
+            Snapshot snapshot = current;
+            if (snapshot == null) {
+                return;
+            }
+            Product[] products = snapshot.products;
+            int pos = binarySearch(products, event.getProductId());
+            Product[] patched;
+            // Encoded JSON carries over for every product the change leaves alone
+            byte[][] encoded = snapshot.encoded();
+            byte[][] patchedJson;
+            long hash = snapshot.hash;
+            if (event.getType() == ProductChangeEvent.Type.DELETED) {
+                if (pos < 0) {
+                    return;
+                }
+                hash ^= hashOf(products[pos]);
+                patched = new Product[products.length - 1];
+                System.arraycopy(products, 0, patched, 0, pos);
+                System.arraycopy(products, pos + 1, patched, pos, products.length - pos - 1);
+                patchedJson = new byte[encoded.length - 1][];
+                System.arraycopy(encoded, 0, patchedJson, 0, pos);
+                System.arraycopy(encoded, pos + 1, patchedJson, pos, encoded.length - pos - 1);
+            } else if (pos >= 0) {
+                if (!event.isNewerThan(products[pos].getVersion())) {
+                    return;
+                }
+                patched = products.clone();
+                patched[pos] = event.toProduct();
+                hash ^= hashOf(products[pos]) ^ hashOf(patched[pos]);
+                patchedJson = encoded;
+                patchedJson[pos] = null;
+            } else if (event.getType() == ProductChangeEvent.Type.UPDATED) {
+                // Not a product this snapshot knows; the next reload picks it up
+                return;
+            } else {
+                int insertAt = -pos - 1;
+                patched = new Product[products.length + 1];
+                System.arraycopy(products, 0, patched, 0, insertAt);
+                patched[insertAt] = event.toProduct();
+                hash ^= hashOf(patched[insertAt]);
+                System.arraycopy(products, insertAt, patched, insertAt + 1, products.length - insertAt);
+                patchedJson = new byte[encoded.length + 1][];
+                System.arraycopy(encoded, 0, patchedJson, 0, insertAt);
+                System.arraycopy(encoded, insertAt, patchedJson, insertAt + 1, encoded.length - insertAt);
+            }
+            current = new Snapshot(patched, patchedJson, hash, snapshot.loadedAt, productWriter());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Snapshot reload() {
+        // forEachProduct walks in id order and detaches every row it hands out
+        List<Product> loaded = new ArrayList<>();
+        productService.forEachProduct(loaded::add);
+        Product[] products = loaded.toArray(new Product[0]);
+        Snapshot snapshot = new Snapshot(products, new byte[products.length][], hashOf(loaded), System.nanoTime(), productWriter());
+        current = snapshot;
+        return snapshot;
+    }
+
+    private ObjectWriter productWriter() {
+        return objectMapper == null ? null : objectMapper.writerFor(Product.class);
+    }
+
+    private static int binarySearch(Product[] products, Long id) {
+        int low = 0;
+        int high = products.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = products[mid].getId().compareTo(id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // Order-independent XOR of per-product hashes, so a patch adjusts it in O(1)
+    private static long hashOf(List<Product> products) {
+        long hash = 0;
+        for (Product product : products) {
+            hash ^= hashOf(product);
+        }
+        return hash;
+    }
+
+    private static long hashOf(Product product) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        // SplitMix64 finalizer spreads the bits of (id, version)
+        long z = product.getId() * 0x9E3779B97F4A7C15L + version;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * One immutable version of the catalog, its ETag and the JSON encoding of
+     * each product, produced on first use and kept for later responses.
+     */
+    public static final class Snapshot {
+        private static final byte[] OPEN = {'['};
+        private static final byte[] SEPARATOR = {','};
+        private static final byte[] CLOSE = {']'};
+        // Bump when the JSON of a product changes shape; "m2" has prices in
+        // minor units with a currency
+        static final String ETAG_FORMAT = "m2";
+
+        private final Product[] products;
+        private final List<Product> view;
+        private final AtomicReferenceArray<byte[]> json;
+        private final ObjectWriter writer;
+        private final long hash;
+        private final String eTag;
+        private final long loadedAt;
+        private volatile byte[] gzipJson;
+
+        Snapshot(Product[] products, byte[][] json, long hash, long loadedAt, ObjectWriter writer) {
+            this.products = products;
+            this.view = Collections.unmodifiableList(Arrays.asList(products));
+            this.json = new AtomicReferenceArray<>(json);
+            this.writer = writer;
+            this.hash = hash;
+            this.eTag = "\"" + ETAG_FORMAT + "-" + products.length + "-" + Long.toHexString(hash) + "\"";
+            this.loadedAt = loadedAt;
+        }
+
+        public List<Product> getProducts() { return view; }
+        public String getETag() { return eTag; }
+        // Strong ETags must differ between content codings of one resource
+        public String getGzipETag() { return eTag.substring(0, eTag.length() - 1) + "-gzip\""; }
+
+        /**
+         * Returns {@link #writeJson} output gzip-compressed. It is compressed
+         * once, at the best compression level, on first use: a snapshot never
+         * changes, and each change to the catalog produces a new snapshot.
+         */
+        public byte[] getGzipJson() throws IOException {
+            byte[] compressed = gzipJson;
+            if (compressed == null) {
+                synchronized (this) {
+                    compressed = gzipJson;
+                    if (compressed == null) {
+                        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                        try (GZIPOutputStream out = new GZIPOutputStream(buffer, 8192) {
+                            {
+                                def.setLevel(Deflater.BEST_COMPRESSION);
+                            }
+                        }) {
+                            writeJson(out);
+                        }
+                        compressed = buffer.toByteArray();
+                        gzipJson = compressed;
+                    }
+                }
+            }
+            return compressed;
+        }
+
+        /**
+         * Writes the catalog as a JSON array, the same compact JSON Jackson
+         * produces for {@link #getProducts()}, by concatenating the cached
+         * encoding of each product.
+         */
+        public void writeJson(OutputStream out) throws IOException {
+            out.write(OPEN);
+            for (int i = 0; i < products.length; i++) {
+                if (i > 0) {
+                    out.write(SEPARATOR);
+                }
+                out.write(encoded(i));
+            }
+            out.write(CLOSE);
+        }
+
+        private byte[] encoded(int i) throws JsonProcessingException {
+            byte[] bytes = json.get(i);
+            if (bytes == null) {
+                // Concurrent first uses may both encode; either result is kept
+                bytes = writer.writeValueAsBytes(products[i]);
+                json.set(i, bytes);
+            }
+            return bytes;
+        }
+
+        private byte[][] encoded() {
+            byte[][] copy = new byte[products.length][];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = json.get(i);
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of products by id, sized by
+ * {@code catalog.cache.max-size} and expired after {@code catalog.cache.ttl}.
+ * <p>
+ * Concurrent misses on one id share a single load, so a hot id cannot stampede
+ * the datasource. Entries are dropped after every committed write; an
+ * invalidation that races with a load waits for it and then discards its
+ * result. Missing ids are cached as well and cleared when the id is created.
+ * Values are detached copies and every caller gets its own copy, so nothing
+ * handed out can alter the cached state.
+ * <p>
+ * Hit, miss and eviction counts are published as the {@code cache.*} meters
+ * tagged {@code cache=products}.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Optional<Product>> cache;
+
+    public ProductCache(@Value("${catalog.cache.max-size:10000}") long maxSize,
+                        @Value("${catalog.cache.ttl:10m}") Duration ttl,
+                        MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        Optional<Product> cached = cache.get(id, key -> loader.apply(key).map(ProductCache::copyOf));
+        return cached.map(ProductCache::copyOf);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        invalidate(event.getProductId());
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setName(product.getName());
+        copy.setDescription(product.getDescription());
+        copy.setPriceMinor(product.getPriceMinor());
+        copy.setCurrency(product.getCurrency());
+        copy.setVersion(product.getVersion());
+        return copy;
+    }
+}
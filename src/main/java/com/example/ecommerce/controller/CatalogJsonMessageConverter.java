@@ -0,0 +1,47 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.cache.CatalogSnapshot;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes a catalog snapshot as a JSON array straight from its cached
+ * per-product encodings, instead of running Jackson over every product on
+ * every request. Spring Boot registers it ahead of the Jackson converter.
+ */
+@Component
+public class CatalogJsonMessageConverter extends AbstractHttpMessageConverter<CatalogSnapshot.Snapshot> {
+
+    public CatalogJsonMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CatalogSnapshot.Snapshot.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CatalogSnapshot.Snapshot readInternal(Class<? extends CatalogSnapshot.Snapshot> clazz,
+                                                    HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Catalog snapshots cannot be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(CatalogSnapshot.Snapshot snapshot, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        snapshot.writeJson(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductBatch;
+import com.example.ecommerce.model.ProductPage;
+import com.example.ecommerce.service.ProductQueryExecutor;
+import com.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous variants of the ProductController reads. The repository work
+ * runs on the bounded {@link ProductQueryExecutor}, so the request thread is
+ * returned to Tomcat while the query runs. A full executor answers 503 at
+ * once, and so does a query that exceeds {@code catalog.async.timeout}.
+ */
+@RestController
+@RequestMapping("/products/async")
+public class ProductAsyncController {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductQueryExecutor productQueryExecutor;
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Optional<Product>>> getProductById(@PathVariable Long id) {
+        return submit(() -> {
+            Optional<Product> product = productService.getProductById(id);
+            if (product.isEmpty()) {
+                return ResponseEntity.ok(product);
+            }
+            return ResponseEntity.ok().eTag(ProductController.eTagOf(product.get())).body(product);
+        });
+    }
+
+    @GetMapping(params = "ids")
+    public CompletableFuture<ProductBatch> getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > ProductController.MAX_BATCH_IDS || ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "ids must name between 1 and " + ProductController.MAX_BATCH_IDS + " products");
+        }
+        return submit(() -> productService.getProductsByIds(ids));
+    }
+
+    @GetMapping(params = "!ids")
+    public DeferredResult<ProductPage> getProductPage(@RequestParam(required = false) String after,
+                                                      @RequestParam(defaultValue = "50") int limit,
+                                                      @RequestParam(required = false) Double minPrice,
+                                                      @RequestParam(required = false) Double maxPrice,
+                                                      @RequestParam(defaultValue = "id,asc") String sort) {
+        if (limit < 1 || limit > ProductController.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + ProductController.MAX_PAGE_SIZE);
+        }
+        if ((minPrice != null && !Double.isFinite(minPrice)) || (maxPrice != null && !Double.isFinite(maxPrice))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice and maxPrice must be finite numbers");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice cannot be greater than maxPrice");
+        }
+        DeferredResult<ProductPage> result = new DeferredResult<>();
+        submit(() -> productService.getProductPage(after, limit, minPrice, maxPrice, sort))
+                .whenComplete((page, error) -> {
+                    if (error != null) {
+                        result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+                    } else {
+                        result.setResult(page);
+                    }
+                });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future;
+        try {
+            future = productQueryExecutor.submit(work);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many queries in progress, try again later");
+        }
+        return future.exceptionally(error -> {
+            throw translate(error);
+        });
+    }
+
+    private static RuntimeException translate(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Query timed out, try again later");
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, cause.getMessage());
+        }
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+}
@@ -1,74 +1,385 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.cache.CatalogSnapshot;
+import com.example.ecommerce.event.ProductChangeFeed;
+import com.example.ecommerce.idempotency.IdempotencyKeyInUseException;
+import com.example.ecommerce.idempotency.IdempotentRequests;
+import com.example.ecommerce.idempotency.StoredResponse;
+import com.example.ecommerce.model.BulkResult;
 import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductBatch;
+import com.example.ecommerce.model.ProductPage;
+import com.example.ecommerce.model.ProductPatch;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.search.ProductNameTrie;
+import com.example.ecommerce.search.ProductSearchIndex;
+import com.example.ecommerce.service.ProductBulkService;
+import com.example.ecommerce.service.ProductExportService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.validation.ProductValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/products")
 public class ProductController {
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SUGGESTIONS = 50;
+    static final int MAX_BATCH_IDS = 1000;
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final Pattern STRONG_VERSION_ETAG = Pattern.compile("\"(\\d{1,18})\"");
+    // A q-value of zero, which refuses a content coding
+    private static final Pattern ZERO_QVALUE = Pattern.compile("0(\\.0{0,3})?");
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductNameTrie productNameTrie;
+
+    @Autowired
+    private ProductBulkService productBulkService;
+
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Plain GET /products returns the whole catalog; any listing parameter
+    // switches to the keyset-paginated form below
+    @GetMapping(params = {"!ids", "!limit", "!after", "!minPrice", "!maxPrice", "!sort"})
+    public ResponseEntity<Object> getAllProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest, HttpServletResponse servletResponse) throws IOException {
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.getSnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // A matching If-None-Match gets 304 before anything is compressed
+        servletResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (webRequest.checkNotModified(gzip ? snapshot.getGzipETag() : snapshot.getETag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // Compressed once per catalog version, not per request
+            return response.eTag(snapshot.getGzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzipJson());
+        }
+        // Written as a JSON array by CatalogJsonMessageConverter from cached
+        // per-product JSON
+        return response.eTag(snapshot.getETag()).body(snapshot);
+    }
+
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductPage getProductPage(@RequestParam(required = false) String after,
+                                      @RequestParam(defaultValue = "50") int limit,
+                                      @RequestParam(required = false) Double minPrice,
+                                      @RequestParam(required = false) Double maxPrice,
+                                      @RequestParam(defaultValue = "id,asc") String sort) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((minPrice != null && !Double.isFinite(minPrice)) || (maxPrice != null && !Double.isFinite(maxPrice))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice and maxPrice must be finite numbers");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice cannot be greater than maxPrice");
+        }
+        try {
+            return productService.getProductPage(after, limit, minPrice, maxPrice, sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // GET /products?ids=3,1,2 resolves many products in one request
+    @GetMapping(params = "ids")
+    public ProductBatch getProductsByIds(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must name between 1 and " + MAX_BATCH_IDS + " products");
+        }
+        if (ids.contains(null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids cannot contain empty values");
+        }
+        return productService.getProductsByIds(ids);
+    }
+
+    @GetMapping("/search")
+    public List<Product> searchProducts(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long[] ids = productSearchIndex.search(q, limit);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        List<Product> products = new ArrayList<>(productRepository.findAllById(idList));
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestProductNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return productNameTrie.suggest(prefix, limit);
+    }
+
+    // Live feed of product changes; reconnecting clients resume after the
+    // Last-Event-ID they saw (or lastEventId, for the first connection)
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                    @RequestParam(required = false) String lastEventId) {
+        return productChangeFeed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        ProductExportService.Format exportFormat;
+        try {
+            exportFormat = ProductExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        StreamingResponseBody body = out -> productExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + exportFormat.getExtension() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public Optional<Product> getProductById(@PathVariable Long id) {
-        return productRepository.findById(id);
+    public ResponseEntity<Optional<Product>> getProductById(@PathVariable Long id) {
+        Optional<Product> product = productService.getProductById(id);
+        if (product.isEmpty()) {
+            return ResponseEntity.ok(product);
+        }
+        return ResponseEntity.ok().eTag(eTagOf(product.get())).body(product);
     }
 
     @PostMapping
-    public Product createProduct(@RequestBody Product product) {
-        // Duplicate validation logic - security hotspot
-        if (product.getName() == null || product.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Product name cannot be empty");
+    public ResponseEntity<Object> createProduct(@RequestBody Product product,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        ProductValidator.requireValid(product);
+        // Ids come from the sequence; a product with one is not new and
+        // would fail to persist
+        if (product.getId() != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "id is assigned by the server; use PUT /products/{id} to replace a product");
+        }
+        product.setVersion(null);
+
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(productRepository.save(product));
         }
-        if (product.getPrice() <= 0.0) {
-            throw new IllegalArgumentException("Product price must be greater than 0");
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
         }
-        if (product.getName().length() > 100) {
-            throw new IllegalArgumentException("Product name cannot exceed 100 characters");
+        String fingerprint = fingerprintOf(product);
+        IdempotentRequests.Outcome outcome;
+        try {
+            outcome = idempotentRequests.execute(idempotencyKey, () ->
+                    new StoredResponse(fingerprint, HttpStatus.OK.value(), toJson(productRepository.save(product))));
+        } catch (IdempotencyKeyInUseException e) {
+            // Another instance is creating it; a retry will get its response
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
         }
-        if (product.getPrice() > 999999.99) {
-            throw new IllegalArgumentException("Product price cannot exceed 999999.99");
+        StoredResponse response = outcome.response();
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY + " was already used for a different product");
         }
-        
-        return productRepository.save(product);
+        // The stored JSON, byte for byte, whether this request saved it or not
+        return ResponseEntity.status(response.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED, Boolean.toString(outcome.replayed()))
+                .body(response.body());
+    }
+
+    @PostMapping("/bulk")
+    public BulkResult bulkUpsertProducts(@RequestBody List<Product> products) {
+        if (products.size() > ProductBulkService.MAX_ITEMS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A bulk request cannot contain more than " + ProductBulkService.MAX_ITEMS + " products");
+        }
+        return new BulkResult(productBulkService.upsert(products));
     }
 
     @PutMapping("/{id}")
-    public Product updateProduct(@PathVariable Long id, @RequestBody Product productDetails) {
-        // Duplicate validation logic - security hotspot (same as createProduct)
-        if (productDetails.getName() == null || productDetails.getName().trim().isEmpty()) {
-            throw new IllegalArgumentException("Product name cannot be empty");
+    public ResponseEntity<Product> updateProduct(@PathVariable Long id, @RequestBody Product productDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductValidator.requireValid(productDetails);
+
+        Optional<Product> updated;
+        try {
+            updated = productService.updateProduct(id, productDetails, expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
         }
-        if (productDetails.getPrice() <= 0.0) {
-            throw new IllegalArgumentException("Product price must be greater than 0");
+        if (updated.isEmpty()) {
+            throw notFound(ifMatch);
         }
-        if (productDetails.getName().length() > 100) {
-            throw new IllegalArgumentException("Product name cannot exceed 100 characters");
+        return ResponseEntity.ok().eTag(eTagOf(updated.get())).body(updated.get());
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchProduct(@PathVariable Long id, @RequestBody ProductPatch patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProductValidator.requireValid(patch);
+
+        Optional<Product> patched;
+        try {
+            patched = productService.patchProduct(id, patch, expectedVersion(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
         }
-        if (productDetails.getPrice() > 999999.99) {
-            throw new IllegalArgumentException("Product price cannot exceed 999999.99");
+        if (patched.isEmpty()) {
+            throw notFound(ifMatch);
         }
-        
-        Product product = productRepository.findById(id).orElseThrow();
-        product.setName(productDetails.getName());
-        product.setDescription(productDetails.getDescription());
-        product.setPrice(productDetails.getPrice());
-        return productRepository.save(product);
+        return ResponseEntity.noContent().eTag(eTagOf(patched.get())).build();
     }
 
     @DeleteMapping("/{id}")
-    public void deleteProduct(@PathVariable Long id) {
-        productRepository.deleteById(id);
+    public void deleteProduct(@PathVariable Long id,
+                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            productRepository.deleteById(id);
+            return;
+        }
+        Long expectedVersion = expectedVersion(ifMatch);
+        try {
+            boolean deleted;
+            if (expectedVersion == null) {
+                deleted = productRepository.existsById(id);
+                productRepository.deleteById(id);
+            } else {
+                deleted = productService.deleteProduct(id, expectedVersion);
+            }
+            if (!deleted) {
+                throw notFound(ifMatch);
+            }
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
+    }
+
+    // True when Accept-Encoding lists gzip, or * without naming gzip, other
+    // than with q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") && ZERO_QVALUE.matcher(param.substring(2).trim()).matches()) {
+                    refused = true;
+                }
+            }
+            if (name.equalsIgnoreCase("gzip")) {
+                return !refused;
+            }
+            if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return wildcard;
+    }
+
+    // Identifies a create request by the fields it sets
+    static String fingerprintOf(Product product) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String fields = product.getName() + '\u0000' + product.getDescription() + '\u0000'
+                    + product.getPriceMinor() + '\u0000' + product.getCurrency();
+            return HexFormat.of().formatHex(digest.digest(fields.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String toJson(Product product) {
+        try {
+            return objectMapper.writeValueAsString(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+
+    // Strong ETag of a single product: its version
+    static String eTagOf(Product product) {
+        return "\"" + product.getVersion() + "\"";
+    }
+
+    // Version named by an If-Match header: null when absent or "*" (any
+    // version), -1 (matches nothing) for weak, malformed or multiple tags,
+    // since If-Match requires a strong comparison
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Matcher matcher = STRONG_VERSION_ETAG.matcher(ifMatch.trim());
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : -1L;
+    }
+
+    // With If-Match a missing product fails the precondition instead of 404
+    private static ResponseStatusException notFound(String ifMatch) {
+        return ifMatch == null
+                ? new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found")
+                : new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Product not found");
     }
 } 
\ No newline at end of file
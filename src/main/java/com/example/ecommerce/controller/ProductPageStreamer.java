@@ -0,0 +1,85 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductService;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the full products listing as it is read. The page shell
+ * ({@code products-all.html} in the usual layout) is rendered once with a
+ * slot where the cards go; everything before the slot is sent at once, then
+ * the {@code fragments/product-cards} fragment is rendered and flushed for
+ * every keyset batch of {@link #BATCH_SIZE} products, and finally the rest
+ * of the shell. Only one batch is held at a time, so heap use does not grow
+ * with the catalog, and no database connection is held while a batch is
+ * written to the client.
+ */
+@Component
+public class ProductPageStreamer {
+
+    static final int BATCH_SIZE = 200;
+    private static final String CARDS_SLOT = "<!--product-cards-->";
+
+    private final ITemplateEngine templateEngine;
+    private final ProductService productService;
+    private final JakartaServletWebApplication application;
+
+    public ProductPageStreamer(ITemplateEngine templateEngine, ProductService productService, ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.productService = productService;
+        this.application = JakartaServletWebApplication.buildApplication(servletContext);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response, OutputStream out) throws IOException {
+        WebContext context = new WebContext(application.buildExchange(request, response), request.getLocale(),
+                Map.of("cardsSlot", CARDS_SLOT));
+        String shell = templateEngine.process("products-all", context);
+        int slot = shell.indexOf(CARDS_SLOT);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(shell, 0, slot);
+        flush(writer, out);
+
+        try {
+            productService.forEachProductBatch(BATCH_SIZE, batch -> writeCards(context, batch, writer, out));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.write(shell, slot + CARDS_SLOT.length(), shell.length() - slot - CARDS_SLOT.length());
+        flush(writer, out);
+    }
+
+    private void writeCards(WebContext context, List<Product> batch, Writer writer, OutputStream out) {
+        // No nextCursor, so the fragment renders just the cards
+        context.setVariable("products", batch);
+        templateEngine.process("fragments/product-cards", Set.of("cards"), context, writer);
+        try {
+            flush(writer, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(Writer writer, OutputStream out) throws IOException {
+        writer.flush();
+        out.flush();
+    }
+}
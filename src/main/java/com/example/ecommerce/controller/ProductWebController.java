@@ -1,48 +1,109 @@
 package com.example.ecommerce.controller;
 
 import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPage;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.util.ErrorHandler;
+import com.example.ecommerce.util.Prices;
+import com.example.ecommerce.validation.ProductValidator;
+import com.example.ecommerce.validation.ValidationError;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import java.util.regex.Pattern;
+import java.nio.charset.StandardCharsets;
 
 @Controller
 @RequestMapping("/web/products")
 public class ProductWebController {
+    static final int PAGE_SIZE = 24;
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductPageStreamer productPageStreamer;
+
+    // One page of cards; the page fetches the following ones from /cards as
+    // the visitor scrolls, so render time does not grow with the catalog
     @GetMapping
-    public String listProducts(Model model) {
-        model.addAttribute("products", productRepository.findAll());
+    public String listProducts(@RequestParam(required = false) String after,
+                               @RequestParam(defaultValue = "" + PAGE_SIZE) int limit,
+                               Model model) {
+        addPage(model, after, limit);
         model.addAttribute("product", new Product());
         return "products";
     }
 
-    @PostMapping
-    public String createProduct(@ModelAttribute Product product, RedirectAttributes redirectAttributes) {
-        // Duplicate validation logic - security hotspot (same as ProductController)
-        if (product.getName() == null || product.getName().trim().isEmpty()) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product name cannot be empty");
-            return "redirect:/web/products";
+    // Just the cards after the cursor, plus the marker for the next batch
+    @GetMapping("/cards")
+    public String productCards(@RequestParam(required = false) String after,
+                               @RequestParam(defaultValue = "" + PAGE_SIZE) int limit,
+                               Model model) {
+        addPage(model, after, limit);
+        return "fragments/product-cards :: cards";
+    }
+
+    // The whole catalog in one page, sent as it is rendered
+    @GetMapping("/all")
+    public ResponseEntity<StreamingResponseBody> listAllProducts(HttpServletRequest request, HttpServletResponse response) {
+        StreamingResponseBody body = out -> productPageStreamer.write(request, response, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    private void addPage(Model model, String after, int limit) {
+        if (limit < 1 || limit > ProductController.MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + ProductController.MAX_PAGE_SIZE);
         }
-        if (product.getPrice() <= 0.0) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product price must be greater than 0");
-            return "redirect:/web/products";
+        ProductPage page;
+        try {
+            page = productService.getProductPage(after, limit, null, null, "id,asc");
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        if (product.getName().length() > 100) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product name cannot exceed 100 characters");
-            return "redirect:/web/products";
+        model.addAttribute("products", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("limit", limit);
+    }
+
+    // The form's price is parsed by bindPrice, never bound through the
+    // double-valued Product.setPrice
+    @InitBinder("product")
+    void disallowPriceBinding(WebDataBinder binder) {
+        binder.setDisallowedFields("price", "priceMinor");
+    }
+
+    @PostMapping
+    public String createProduct(@ModelAttribute Product product, @RequestParam(required = false) String price,
+                                RedirectAttributes redirectAttributes) {
+        ValidationError error = bindPrice(product, price);
+        if (error == null) {
+            error = ProductValidator.validate(product);
         }
-        if (product.getPrice() > 999999.99) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product price cannot exceed 999999.99");
+        if (error != null) {
+            ErrorHandler.addValidationError(redirectAttributes, error);
             return "redirect:/web/products";
         }
-        
+
+        // Always a new product, whatever id or version the form posted
+        product.setId(null);
+        product.setVersion(null);
         productRepository.save(product);
         redirectAttributes.addFlashAttribute("successMessage", "Product created successfully!");
         return "redirect:/web/products";
@@ -50,35 +111,28 @@ public class ProductWebController {
 
     @GetMapping("/edit/{id}")
     public String editProduct(@PathVariable Long id, Model model) {
-        model.addAttribute("product", productRepository.findById(id).orElseThrow());
+        Product product = productService.getProductById(id).orElseThrow();
+        model.addAttribute("product", product);
+        model.addAttribute("price", Prices.format(product.getPriceMinor()));
         return "edit-product";
     }
 
     @PostMapping("/update/{id}")
-    public String updateProduct(@PathVariable Long id, @ModelAttribute Product product, RedirectAttributes redirectAttributes) {
-        // Duplicate validation logic - security hotspot (same as createProduct)
-        if (product.getName() == null || product.getName().trim().isEmpty()) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product name cannot be empty");
-            return "redirect:/web/products";
+    public String updateProduct(@PathVariable Long id, @ModelAttribute Product product,
+                                @RequestParam(required = false) String price, RedirectAttributes redirectAttributes) {
+        ValidationError error = bindPrice(product, price);
+        if (error == null) {
+            error = ProductValidator.validate(product);
         }
-        if (product.getPrice() <= 0.0) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product price must be greater than 0");
+        if (error != null) {
+            ErrorHandler.addValidationError(redirectAttributes, error);
             return "redirect:/web/products";
         }
-        if (product.getName().length() > 100) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product name cannot exceed 100 characters");
-            return "redirect:/web/products";
-        }
-        if (product.getPrice() > 999999.99) {
-            redirectAttributes.addFlashAttribute("errorMessage", "Product price cannot exceed 999999.99");
+
+        if (productService.updateProduct(id, product).isEmpty()) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Product not found");
             return "redirect:/web/products";
         }
-        
-        Product existingProduct = productRepository.findById(id).orElseThrow();
-        existingProduct.setName(product.getName());
-        existingProduct.setDescription(product.getDescription());
-        existingProduct.setPrice(product.getPrice());
-        productRepository.save(existingProduct);
         redirectAttributes.addFlashAttribute("successMessage", "Product updated successfully!");
         return "redirect:/web/products";
     }
@@ -89,4 +143,18 @@ public class ProductWebController {
         redirectAttributes.addFlashAttribute("successMessage", "Product deleted successfully!");
         return "redirect:/web/products";
     }
+
+    // Exact minor units from the submitted decimal, with the parser the JSON
+    // price goes through; a missing price stays 0 and fails validation
+    private static ValidationError bindPrice(Product product, String price) {
+        if (price == null || price.isBlank()) {
+            return null;
+        }
+        try {
+            product.setPriceMinor(Prices.parseMinor(price.trim()));
+            return null;
+        } catch (NumberFormatException e) {
+            return ValidationError.PRICE_INVALID;
+        }
+    }
 } 
\ No newline at end of file
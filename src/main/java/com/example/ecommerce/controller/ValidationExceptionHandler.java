@@ -0,0 +1,47 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.validation.ProductValidationException;
+import com.example.ecommerce.validation.ValidationError;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Answers a {@link ProductValidationException} from any controller with a
+ * 400 application/problem+json body (RFC 9457) that adds the error
+ * {@code code} and {@code field} to the standard members. The bodies are
+ * encoded once per {@link ValidationError} at startup.
+ */
+@RestControllerAdvice
+public class ValidationExceptionHandler {
+
+    private final Map<ValidationError, byte[]> problems = new EnumMap<>(ValidationError.class);
+
+    public ValidationExceptionHandler(ObjectMapper objectMapper) throws JsonProcessingException {
+        for (ValidationError error : ValidationError.values()) {
+            Map<String, Object> problem = new LinkedHashMap<>();
+            problem.put("type", "about:blank");
+            problem.put("title", HttpStatus.BAD_REQUEST.getReasonPhrase());
+            problem.put("status", HttpStatus.BAD_REQUEST.value());
+            problem.put("detail", error.getMessage());
+            problem.put("code", error.getCode());
+            problem.put("field", error.getField());
+            problems.put(error, objectMapper.writeValueAsBytes(problem));
+        }
+    }
+
+    @ExceptionHandler(ProductValidationException.class)
+    public ResponseEntity<byte[]> handleValidation(ProductValidationException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problems.get(e.getError()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.model.Product;
+
+/**
+ * Published after a product is created, updated or deleted, whether the write
+ * went through an entity save or a single-statement UPDATE. Carries the full
+ * state after the change (nothing but the id for deletes). In-memory views of
+ * the catalog (search index, caches, change feed) keep themselves current by
+ * listening for it.
+ */
+public class ProductChangeEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long productId;
+    private final String name;
+    private final String description;
+    private final long priceMinor;
+    private final String currency;
+    private final Long version;
+
+    private ProductChangeEvent(Type type, Long productId, String name, String description, long priceMinor,
+                               String currency, Long version) {
+        this.type = type;
+        this.productId = productId;
+        this.name = name;
+        this.description = description;
+        this.priceMinor = priceMinor;
+        this.currency = currency;
+        this.version = version;
+    }
+
+    public static ProductChangeEvent created(Product product) {
+        return new ProductChangeEvent(Type.CREATED, product.getId(), product.getName(), product.getDescription(),
+                product.getPriceMinor(), product.getCurrency(), product.getVersion());
+    }
+
+    public static ProductChangeEvent updated(Product product) {
+        return new ProductChangeEvent(Type.UPDATED, product.getId(), product.getName(), product.getDescription(),
+                product.getPriceMinor(), product.getCurrency(), product.getVersion());
+    }
+
+    public static ProductChangeEvent deleted(Long productId) {
+        return new ProductChangeEvent(Type.DELETED, productId, null, null, 0, null, null);
+    }
+
+    public Type getType() { return type; }
+    public Long getProductId() { return productId; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public long getPriceMinor() { return priceMinor; }
+    public String getCurrency() { return currency; }
+    public Long getVersion() { return version; }
+
+    /**
+     * True when this change is later than the state at {@code version}, or
+     * when either version is unknown. Views use it to drop events that arrive
+     * after a newer one for the same product.
+     */
+    public boolean isNewerThan(Long version) {
+        return this.version == null || version == null || this.version > version;
+    }
+
+    /**
+     * Returns a new, detached product holding the state after this change.
+     */
+    public Product toProduct() {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPriceMinor(priceMinor);
+        product.setCurrency(currency);
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.ecommerce.event;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-Sent Events feed of committed product changes. Every
+ * {@link ProductChangeEvent} gets the next sequence number, sent as the SSE
+ * event id together with a per-process epoch ({@code <epoch>-<sequence>}) so
+ * ids from before a restart are recognised, and is kept in a ring buffer of
+ * the last {@code catalog.changes.buffer-size} changes. A client reconnecting with
+ * Last-Event-ID receives only the changes after it; when those are no longer
+ * buffered it receives a {@code reset} event instead and should re-fetch the
+ * catalog.
+ * <p>
+ * Events are named after the change type ({@code created}, {@code updated},
+ * {@code deleted}) and carry the product as JSON, only its id for deletes.
+ * They are written to subscribers from one dispatcher thread, so a slow
+ * client never holds up the transaction that made the change.
+ */
+@Component
+public class ProductChangeFeed implements DisposableBean {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Change[] buffer;
+    private final long timeoutMillis;
+    // Sequence number of the latest change; buffer[seq % length] holds it
+    private long latest;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ProductChangeFeed(@Value("${catalog.changes.buffer-size:1024}") int bufferSize,
+                             @Value("${catalog.changes.timeout:30m}") Duration timeout) {
+        this.buffer = new Change[bufferSize];
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        Change change;
+        synchronized (this) {
+            latest++;
+            change = new Change(latest, event);
+            buffer[(int) (latest % buffer.length)] = change;
+        }
+        dispatcher.execute(() -> {
+            for (Subscriber subscriber : subscribers.values()) {
+                subscriber.send(change);
+            }
+        });
+    }
+
+    /**
+     * Opens a stream of the changes after {@code lastEventId}, or of new
+     * changes only when it is null.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(emitter));
+        synchronized (this) {
+            // The emitter is not attached to the response yet, so these sends
+            // are only buffered and holding the lock costs nothing
+            long after = sequenceOf(lastEventId);
+            if (lastEventId == null) {
+                subscriber.lastSent = latest;
+            } else if (after < 0 || after > latest || after < latest - buffer.length) {
+                subscriber.sendReset(latest);
+            } else {
+                for (long seq = after + 1; seq <= latest; seq++) {
+                    subscriber.send(buffer[(int) (seq % buffer.length)]);
+                }
+                subscriber.lastSent = latest;
+            }
+            subscribers.put(emitter, subscriber);
+        }
+        return emitter;
+    }
+
+    // Sequence within this process's epoch, or -1 for a foreign or malformed id
+    private long sequenceOf(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        subscribers.keySet().forEach(SseEmitter::complete);
+    }
+
+    private record Change(long sequence, ProductChangeEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // Replay and live dispatch can overlap; anything at or below this was sent
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void send(Change change) {
+            if (change.sequence <= lastSent) {
+                return;
+            }
+            ProductChangeEvent event = change.event;
+            Object data = event.getType() == ProductChangeEvent.Type.DELETED
+                    ? Map.of("id", event.getProductId())
+                    : event.toProduct();
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(eventId(change.sequence))
+                        .name(event.getType().name().toLowerCase())
+                        .data(data, MediaType.APPLICATION_JSON));
+                lastSent = change.sequence;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the stream already completed
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+
+        synchronized void sendReset(long sequence) {
+            try {
+                emitter.send(SseEmitter.event().id(eventId(sequence)).name("reset").data(""));
+                lastSent = sequence;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
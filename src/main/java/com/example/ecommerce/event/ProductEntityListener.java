@@ -0,0 +1,35 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Turns entity lifecycle callbacks into {@link ProductChangeEvent}s, so every
+ * save and delete through JPA is seen regardless of which controller or
+ * service made it. Bulk JPQL updates bypass these callbacks and are published
+ * by ProductService instead.
+ */
+public class ProductEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    void afterInsert(Product product) {
+        eventPublisher.publishEvent(ProductChangeEvent.created(product));
+    }
+
+    @PostUpdate
+    void afterUpdate(Product product) {
+        eventPublisher.publishEvent(ProductChangeEvent.updated(product));
+    }
+
+    @PostRemove
+    void afterDelete(Product product) {
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(product.getId()));
+    }
+}
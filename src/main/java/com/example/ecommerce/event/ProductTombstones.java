@@ -0,0 +1,60 @@
+package com.example.ecommerce.event;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Recently deleted product ids, kept by in-memory views so that a late
+ * {@link ProductChangeEvent} cannot bring a deleted product back. Events are
+ * published once their transaction has committed, on the committing thread,
+ * so a delete racing with an update of the same id can reach listeners in
+ * either order. Ids are never reused, and a tombstone only has to outlive the
+ * events still in flight, so entries expire after {@link #DEFAULT_TTL}.
+ * <p>
+ * Not thread-safe: callers guard it with the lock that protects their view.
+ */
+public final class ProductTombstones {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    // Expiry per id; insertion order is expiry order
+    private final Map<Long, Long> expiries = new LinkedHashMap<>();
+
+    public ProductTombstones() {
+        this(DEFAULT_TTL, System::nanoTime);
+    }
+
+    ProductTombstones(Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    public void add(Long id) {
+        long now = clock.getAsLong();
+        prune(now);
+        expiries.remove(id);
+        expiries.put(id, now + ttlNanos);
+    }
+
+    public boolean contains(Long id) {
+        prune(clock.getAsLong());
+        return expiries.containsKey(id);
+    }
+
+    public int size() {
+        prune(clock.getAsLong());
+        return expiries.size();
+    }
+
+    private void prune(long now) {
+        Iterator<Long> it = expiries.values().iterator();
+        while (it.hasNext() && it.next() - now <= 0) {
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ecommerce.idempotency;
+
+/**
+ * Thrown when another instance is still running a request under the same
+ * Idempotency-Key, so there is no response to replay yet.
+ */
+public class IdempotencyKeyInUseException extends RuntimeException {
+
+    public IdempotencyKeyInUseException(String key) {
+        super("A request with Idempotency-Key " + key + " is still in progress");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.idempotency;
+
+/**
+ * Responses recorded under an Idempotency-Key. Entries older than
+ * {@code catalog.idempotency.ttl} are treated as absent.
+ * <p>
+ * A request takes a key with {@link #claim} before it runs, then either
+ * {@link #save}s its response under the key or {@link #release}s it after a
+ * failure. Only one caller can hold a key at a time, across every instance
+ * that shares the store.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * The response recorded under {@code key}, or null when there is none,
+     * it has expired or the request holding the key has not finished.
+     */
+    StoredResponse find(String key);
+
+    /**
+     * Takes {@code key} for a request about to run. Returns false when
+     * another request holds it, whether still running or finished.
+     */
+    boolean claim(String key);
+
+    // Records the response of the request holding key
+    void save(String key, StoredResponse response);
+
+    // Gives up a claim whose request failed, so the key can be retried
+    void release(String key);
+}
@@ -0,0 +1,76 @@
+package com.example.ecommerce.idempotency;
+
+import com.example.ecommerce.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key. The first request runs
+ * and its response is stored; later requests with the key get the stored
+ * response without running. Requests arriving while the first is still
+ * running wait for it and share its response. A request that fails stores
+ * nothing, so it can be retried with the same key.
+ * <p>
+ * Waiting only works within this instance. The key is claimed in the store
+ * before the request runs, so when another instance sharing the store holds
+ * it and has not finished, {@link IdempotencyKeyInUseException} is thrown
+ * instead of running the request a second time.
+ */
+@Component
+public class IdempotentRequests {
+
+    private final IdempotencyStore store;
+    private final SingleFlight<String, StoredResponse> flights;
+
+    public IdempotentRequests(IdempotencyStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.flights = new SingleFlight<>("idempotency", meterRegistry);
+    }
+
+    /**
+     * The response for {@code key}: stored, shared with a concurrent request,
+     * or produced now by {@code request}. Callers compare its fingerprint with
+     * their own to detect a key reused for a different request.
+     *
+     * @throws IdempotencyKeyInUseException when another instance is running
+     *                                      a request under the key
+     */
+    public Outcome execute(String key, Supplier<StoredResponse> request) {
+        StoredResponse stored = store.find(key);
+        if (stored != null) {
+            return new Outcome(stored, true);
+        }
+        boolean[] ran = new boolean[1];
+        StoredResponse response = flights.execute(key, () -> {
+            // The previous flight for this key may have finished since the lookup
+            StoredResponse existing = store.find(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (!store.claim(key)) {
+                // Another instance holds the key; it may have just finished
+                existing = store.find(key);
+                if (existing != null) {
+                    return existing;
+                }
+                throw new IdempotencyKeyInUseException(key);
+            }
+            ran[0] = true;
+            StoredResponse produced;
+            try {
+                produced = request.get();
+            } catch (RuntimeException | Error e) {
+                store.release(key);
+                throw e;
+            }
+            store.save(key, produced);
+            return produced;
+        });
+        return new Outcome(response, !ran[0]);
+    }
+
+    public record Outcome(StoredResponse response, boolean replayed) {
+    }
+}
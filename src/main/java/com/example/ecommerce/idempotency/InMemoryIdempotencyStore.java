@@ -0,0 +1,53 @@
+package com.example.ecommerce.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Default store: at most {@code catalog.idempotency.max-size} keys in memory,
+ * each kept for {@code catalog.idempotency.ttl}. Keys are lost on restart and
+ * are not shared between instances; use the jdbc store for that.
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    // Held under a claimed key until its response is saved
+    private static final StoredResponse PENDING = new StoredResponse("", 0, null);
+
+    private final Cache<String, StoredResponse> responses;
+
+    public InMemoryIdempotencyStore(@Value("${catalog.idempotency.max-size:100000}") long maxSize,
+                                    @Value("${catalog.idempotency.ttl:24h}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public StoredResponse find(String key) {
+        StoredResponse response = responses.getIfPresent(key);
+        return response == PENDING ? null : response;
+    }
+
+    @Override
+    public boolean claim(String key) {
+        return responses.asMap().putIfAbsent(key, PENDING) == null;
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        responses.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        responses.asMap().remove(key, PENDING);
+    }
+}
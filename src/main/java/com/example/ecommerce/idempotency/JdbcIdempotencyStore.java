@@ -0,0 +1,100 @@
+package com.example.ecommerce.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Store in the IDEMPOTENCY_KEY table, shared by every instance on the
+ * database and kept across restarts (schema.sql creates the table only when
+ * it is missing). Selected with {@code catalog.idempotency.store=jdbc}.
+ * <p>
+ * A claim is a plain INSERT of a pending row (status 0), so the primary key
+ * lets exactly one instance take a key; the response later replaces the
+ * pending row. A pending row older than {@link #CLAIM_TIMEOUT} is taken to
+ * belong to an instance that stopped and may be claimed again. Expired rows
+ * are ignored on read and purged by claims, at most once a minute.
+ */
+@Component
+@ConditionalOnProperty(prefix = "catalog.idempotency", name = "store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(1);
+    private static final int PENDING_STATUS = 0;
+    private static final long PURGE_INTERVAL_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final AtomicLong nextPurge = new AtomicLong();
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+                                @Value("${catalog.idempotency.ttl:24h}") Duration ttl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public StoredResponse find(String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT fingerprint, status, body FROM IDEMPOTENCY_KEY "
+                        + "WHERE idempotency_key = ? AND status <> ? AND created_at > ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString("fingerprint"), rs.getInt("status"), rs.getString("body")),
+                key, PENDING_STATUS, Timestamp.from(Instant.now().minus(ttl)));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public boolean claim(String key) {
+        purgeExpired();
+        Instant now = Instant.now();
+        try {
+            jdbcTemplate.update("INSERT INTO IDEMPOTENCY_KEY (idempotency_key, fingerprint, status, body, created_at) "
+                    + "VALUES (?, '', ?, NULL, ?)", key, PENDING_STATUS, Timestamp.from(now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Held, unless the row has expired or its claim was abandoned
+            return jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET fingerprint = '', status = ?, body = NULL, created_at = ? "
+                            + "WHERE idempotency_key = ? AND (created_at <= ? OR (status = ? AND created_at <= ?))",
+                    PENDING_STATUS, Timestamp.from(now), key, Timestamp.from(now.minus(ttl)),
+                    PENDING_STATUS, Timestamp.from(now.minus(CLAIM_TIMEOUT))) == 1;
+        }
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET fingerprint = ?, status = ?, body = ?, created_at = ? "
+                        + "WHERE idempotency_key = ?",
+                response.fingerprint(), response.status(), response.body(), now, key);
+        if (updated == 0) {
+            // Saved without a claim, or the claim was purged meanwhile
+            try {
+                jdbcTemplate.update("INSERT INTO IDEMPOTENCY_KEY (idempotency_key, fingerprint, status, body, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?)", key, response.fingerprint(), response.status(), response.body(), now);
+            } catch (DuplicateKeyException e) {
+                // Another request claimed the key first and owns it now
+            }
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM IDEMPOTENCY_KEY WHERE idempotency_key = ? AND status = ?", key, PENDING_STATUS);
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long due = nextPurge.get();
+        if (now >= due && nextPurge.compareAndSet(due, now + PURGE_INTERVAL_MILLIS)) {
+            jdbcTemplate.update("DELETE FROM IDEMPOTENCY_KEY WHERE created_at <= ?", Timestamp.from(Instant.now().minus(ttl)));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.idempotency;
+
+/**
+ * A response as first sent for an Idempotency-Key. {@code fingerprint}
+ * identifies the request it answered, so a key reused for a different
+ * request can be refused.
+ */
+public record StoredResponse(String fingerprint, int status, String body) {
+}
@@ -0,0 +1,51 @@
+package com.example.ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one element of a bulk request, reported at the element's index
+ * in the request body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+    public enum Status { CREATED, UPDATED, INVALID, NOT_FOUND, CONFLICT }
+
+    private final int index;
+    private final Status status;
+    private final Long id;
+    private final String error;
+
+    private BulkItemResult(int index, Status status, Long id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, Status.CREATED, id, null);
+    }
+
+    public static BulkItemResult updated(int index, Long id) {
+        return new BulkItemResult(index, Status.UPDATED, id, null);
+    }
+
+    public static BulkItemResult invalid(int index, Long id, String error) {
+        return new BulkItemResult(index, Status.INVALID, id, error);
+    }
+
+    public static BulkItemResult notFound(int index, Long id) {
+        return new BulkItemResult(index, Status.NOT_FOUND, id, "Product not found");
+    }
+
+    public static BulkItemResult conflict(int index, Long id, Long currentVersion) {
+        return new BulkItemResult(index, Status.CONFLICT, id,
+                "Product was modified by another request; current version is " + currentVersion);
+    }
+
+    public int getIndex() { return index; }
+    public Status getStatus() { return status; }
+    public Long getId() { return id; }
+    public String getError() { return error; }
+}
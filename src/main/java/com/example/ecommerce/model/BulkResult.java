@@ -0,0 +1,34 @@
+package com.example.ecommerce.model;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk create/upsert call with one result per submitted item.
+ */
+public class BulkResult {
+    private final int created;
+    private final int updated;
+    private final int failed;
+    private final List<BulkItemResult> results;
+
+    public BulkResult(List<BulkItemResult> results) {
+        int createdCount = 0;
+        int updatedCount = 0;
+        for (BulkItemResult result : results) {
+            if (result.getStatus() == BulkItemResult.Status.CREATED) {
+                createdCount++;
+            } else if (result.getStatus() == BulkItemResult.Status.UPDATED) {
+                updatedCount++;
+            }
+        }
+        this.created = createdCount;
+        this.updated = updatedCount;
+        this.failed = results.size() - createdCount - updatedCount;
+        this.results = results;
+    }
+
+    public int getCreated() { return created; }
+    public int getUpdated() { return updated; }
+    public int getFailed() { return failed; }
+    public List<BulkItemResult> getResults() { return results; }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.model;
+
+import com.example.ecommerce.util.Prices;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON {@code price} (a number, or a numeric string) as minor units
+ * straight from the parser's character buffer, so the amount never passes
+ * through a double and is exact.
+ */
+public class PriceDeserializer extends JsonDeserializer<Long> {
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        try {
+            return Prices.parseMinor(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        } catch (NumberFormatException e) {
+            return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,43 @@
 package com.example.ecommerce.model;
 
+import com.example.ecommerce.event.ProductEntityListener;
+import com.example.ecommerce.util.Prices;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+import java.math.BigDecimal;
 
 @Entity
 @Table(name = "PRODUCT")
+@EntityListeners(ProductEntityListener.class)
+@JsonPropertyOrder({"id", "name", "description", "price", "priceMinor", "currency", "version"})
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts;
+    // allocationSize must match the INCREMENT BY of PRODUCT_SEQ in schema.sql
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "PRODUCT_SEQ", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
-    private double price;
+    // Exact amount in minor units (cents), see Prices
+    @Column(name = "price_minor")
+    private long priceMinor;
+    private String currency = Prices.DEFAULT_CURRENCY;
+    // Optimistic lock and ETag source; bumped on every update
+    @Version
+    private Long version;
 
     // Getters and setters TODO changes
     public Long getId() { return id; }
@@ -23,6 +46,25 @@ public class Product {
     public void setName(String name) { this.name = name; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-    public double getPrice() { return price; }
-    public void setPrice(double price) { this.price = price; }
-} 
\ No newline at end of file
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public long getPriceMinor() { return priceMinor; }
+    public void setPriceMinor(long priceMinor) { this.priceMinor = priceMinor; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    // Price in major units, for code that works with doubles; setting it
+    // rounds to the nearest cent. Forms and JSON parse minor units instead
+    @JsonIgnore
+    public double getPrice() { return Prices.toDouble(priceMinor); }
+    @JsonIgnore
+    public void setPrice(double price) { this.priceMinor = Prices.toMinor(price); }
+
+    // JSON "price": the exact decimal, e.g. 1299.99
+    @JsonProperty("price")
+    BigDecimal getPriceAmount() { return Prices.toDecimal(priceMinor); }
+    @JsonProperty("price")
+    @JsonDeserialize(using = PriceDeserializer.class)
+    void setPriceAmount(long priceMinor) { this.priceMinor = priceMinor; }
+}
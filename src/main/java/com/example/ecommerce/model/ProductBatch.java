@@ -0,0 +1,20 @@
+package com.example.ecommerce.model;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the products found, in the order their ids were
+ * requested, and the requested ids that do not exist.
+ */
+public class ProductBatch {
+    private final List<Product> items;
+    private final List<Long> missing;
+
+    public ProductBatch(List<Product> items, List<Long> missing) {
+        this.items = items;
+        this.missing = missing;
+    }
+
+    public List<Product> getItems() { return items; }
+    public List<Long> getMissing() { return missing; }
+}
@@ -0,0 +1,20 @@
+package com.example.ecommerce.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated product listing. {@code nextCursor} is null
+ * on the last page.
+ */
+public class ProductPage {
+    private final List<Product> items;
+    private final String nextCursor;
+
+    public ProductPage(List<Product> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Product> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
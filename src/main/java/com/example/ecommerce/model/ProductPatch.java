@@ -0,0 +1,29 @@
+package com.example.ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Body of a PATCH request. Fields left null are not changed.
+ */
+public class ProductPatch {
+    private String name;
+    private String description;
+    // JSON "price" in major units, held as minor units like Product
+    @JsonProperty("price")
+    @JsonDeserialize(using = PriceDeserializer.class)
+    private Long priceMinor;
+    private String currency;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    @JsonIgnore
+    public Long getPriceMinor() { return priceMinor; }
+    @JsonIgnore
+    public void setPriceMinor(Long priceMinor) { this.priceMinor = priceMinor; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+}
@@ -1,7 +1,64 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-} 
\ No newline at end of file
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    // Keyset (seek) page: walks the primary key index from afterId, so the cost
+    // of a page does not depend on how deep into the catalog it is
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Cursor over the whole catalog in id order. Must be consumed inside a
+    // transaction and closed; callers should detach rows as they go.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    // Single-statement writes: H2's FINAL TABLE returns the row as it is after
+    // the UPDATE, so the caller gets the new version without a second query.
+    // No row comes back when the id is unknown or, if expectedVersion is
+    // given, when the stored version differs.
+    @Transactional
+    @Query(nativeQuery = true, value = "select id, name, description, price_minor as priceMinor, currency, version "
+            + "from final table (update PRODUCT set name = :name, description = :description, "
+            + "price_minor = :priceMinor, currency = :currency, version = version + 1 "
+            + "where id = :id and (cast(:expectedVersion as bigint) is null or version = :expectedVersion))")
+    List<ProductRow> updateById(@Param("id") Long id, @Param("name") String name,
+                                @Param("description") String description, @Param("priceMinor") long priceMinor,
+                                @Param("currency") String currency, @Param("expectedVersion") Long expectedVersion);
+
+    // Null arguments leave the corresponding column unchanged
+    @Transactional
+    @Query(nativeQuery = true, value = "select id, name, description, price_minor as priceMinor, currency, version "
+            + "from final table (update PRODUCT set name = coalesce(:name, name), "
+            + "description = coalesce(:description, description), "
+            + "price_minor = coalesce(cast(:priceMinor as bigint), price_minor), "
+            + "currency = coalesce(:currency, currency), version = version + 1 "
+            + "where id = :id and (cast(:expectedVersion as bigint) is null or version = :expectedVersion))")
+    List<ProductRow> patchById(@Param("id") Long id, @Param("name") String name,
+                               @Param("description") String description, @Param("priceMinor") Long priceMinor,
+                               @Param("currency") String currency, @Param("expectedVersion") Long expectedVersion);
+
+    // Deletes only while the stored version still matches
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where p.id = :id and p.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") long version);
+}
@@ -0,0 +1,17 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Product;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page ordered ascending by {@code sortField} ("id", "price" or
+     * "name") and then id, optionally restricted to a price range. Pass the
+     * sort value and id of the previous page's last row to continue after it
+     * (a price in minor units), or nulls for the first page. Returns at most {@code maxResults} rows.
+     */
+    List<Product> findKeysetPage(String sortField, Double minPrice, Double maxPrice,
+                                 Object afterValue, Long afterId, int maxResults);
+}
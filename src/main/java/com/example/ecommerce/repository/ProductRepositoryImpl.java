@@ -0,0 +1,73 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.util.Prices;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the keyset queries for sorted listings. The continuation predicate is
+ * written as {@code f >= :v and (f > :v or id > :id)} rather than the textbook
+ * {@code f > :v or (f = :v and id > :id)}: the leading range lets H2 start the
+ * (f, id) index scan at the cursor, while a top-level OR makes it fall back to
+ * a table scan and sort.
+ */
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    // Column names are spliced into the JPQL, so only these are accepted
+    private static final Set<String> SORT_FIELDS = Set.of("id", "price", "name");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findKeysetPage(String sortField, Double minPrice, Double maxPrice,
+                                        Object afterValue, Long afterId, int maxResults) {
+        if (!SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortField);
+        }
+        boolean byId = sortField.equals("id");
+        // Prices are stored in minor units; the bounds are inclusive
+        Long minPriceMinor = minPrice == null ? null : Prices.ceilMinor(minPrice);
+        Long maxPriceMinor = maxPrice == null ? null : Prices.floorMinor(maxPrice);
+        String column = sortField.equals("price") ? "priceMinor" : sortField;
+        StringBuilder jpql = new StringBuilder("select p from Product p where 1 = 1");
+        if (!byId) {
+            jpql.append(" and p.").append(column).append(" is not null");
+        }
+        if (minPrice != null) {
+            jpql.append(" and p.priceMinor >= :minPrice");
+        }
+        if (maxPrice != null) {
+            jpql.append(" and p.priceMinor <= :maxPrice");
+        }
+        if (afterId != null) {
+            if (byId) {
+                jpql.append(" and p.id > :afterId");
+            } else {
+                jpql.append(" and p.").append(column).append(" >= :afterValue")
+                        .append(" and (p.").append(column).append(" > :afterValue or p.id > :afterId)");
+            }
+        }
+        jpql.append(byId ? " order by p.id" : " order by p." + column + ", p.id");
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class);
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPriceMinor);
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPriceMinor);
+        }
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+            if (!byId) {
+                query.setParameter("afterValue", afterValue);
+            }
+        }
+        return query.setMaxResults(maxResults).getResultList();
+    }
+}
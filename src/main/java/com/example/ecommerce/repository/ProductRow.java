@@ -0,0 +1,27 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.Product;
+
+/**
+ * Column projection returned by the single-statement updates, so the rows
+ * never enter (or go stale in) the persistence context.
+ */
+public interface ProductRow {
+    Long getId();
+    String getName();
+    String getDescription();
+    Long getPriceMinor();
+    String getCurrency();
+    Long getVersion();
+
+    default Product toProduct() {
+        Product product = new Product();
+        product.setId(getId());
+        product.setName(getName());
+        product.setDescription(getDescription());
+        product.setPriceMinor(getPriceMinor() == null ? 0 : getPriceMinor());
+        product.setCurrency(getCurrency());
+        product.setVersion(getVersion());
+        return product;
+    }
+}
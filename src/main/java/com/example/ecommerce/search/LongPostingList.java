@@ -0,0 +1,76 @@
+package com.example.ecommerce.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of product ids backed by a primitive array, so a
+ * posting costs eight bytes instead of a boxed Long plus a collection node.
+ * Not thread-safe; {@link ProductSearchIndex} guards access.
+ */
+final class LongPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        if (size > INITIAL_CAPACITY && size * 4 < ids.length) {
+            ids = Arrays.copyOf(ids, ids.length / 2);
+        }
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Keeps only the entries of {@code candidates[0..count)} that are in this
+     * list, compacting them in place. Both sides are sorted, so the smaller
+     * side drives and the larger one is probed with binary search.
+     *
+     * @return the number of surviving candidates
+     */
+    int retainAll(long[] candidates, int count) {
+        int kept = 0;
+        int from = 0;
+        for (int i = 0; i < count && from < size; i++) {
+            int pos = Arrays.binarySearch(ids, from, size, candidates[i]);
+            if (pos >= 0) {
+                candidates[kept++] = candidates[i];
+                from = pos + 1;
+            } else {
+                from = -pos - 1;
+            }
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.event.ProductTombstones;
+import com.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix trie over product names for typeahead. Children are
+ * kept in sorted parallel arrays rather than maps, so a lookup is a short
+ * binary search per character and a depth-first walk yields names in
+ * alphabetical order, stopping as soon as enough have been collected.
+ * Loaded when the application is ready and kept current from
+ * {@link ProductChangeEvent}s, ignoring any that arrive after a newer change
+ * to the same product or after its deletion.
+ */
+@Component
+public class ProductNameTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private Node root = new Node();
+    // Current name and version of each product, needed to unindex it on
+    // rename or delete and to recognise stale events
+    private final Map<Long, IndexedName> namesById = new HashMap<>();
+    private final ProductTombstones deleted = new ProductTombstones();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ProductService productService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            namesById.clear();
+            productService.forEachProduct(product -> add(product.getId(), product.getName(), product.getVersion()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            Long id = event.getProductId();
+            if (deleted.contains(id)) {
+                return;
+            }
+            IndexedName previous = namesById.get(id);
+            if (event.getType() == ProductChangeEvent.Type.DELETED) {
+                deleted.add(id);
+            } else if (previous != null && !event.isNewerThan(previous.version())) {
+                return;
+            } else if (previous != null && Objects.equals(previous.name(), event.getName())) {
+                // Updates that keep the name leave the trie as it is
+                namesById.put(id, new IndexedName(previous.name(), event.getVersion()));
+                return;
+            }
+            namesById.remove(id);
+            if (previous != null) {
+                remove(previous.name());
+            }
+            if (event.getType() != ProductChangeEvent.Type.DELETED) {
+                add(id, event.getName(), event.getVersion());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} distinct product names starting with
+     * {@code prefix} (ignoring case), in alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+        String key = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.child(key.charAt(i));
+            }
+            if (node != null) {
+                collect(node, limit, out);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    private void add(Long id, String name, Long version) {
+        namesById.put(id, new IndexedName(name, version));
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = name.toLowerCase(Locale.ROOT);
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        if (node.names == null) {
+            node.names = new TreeMap<>();
+        }
+        node.names.merge(name, 1, Integer::sum);
+    }
+
+    private void remove(String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        removeFrom(root, name.toLowerCase(Locale.ROOT), 0, name);
+    }
+
+    // Returns true when the node no longer carries anything and can be pruned
+    private static boolean removeFrom(Node node, String key, int depth, String name) {
+        if (depth == key.length()) {
+            if (node.names != null && node.names.computeIfPresent(name, (n, count) -> count > 1 ? count - 1 : null) == null
+                    && node.names.isEmpty()) {
+                node.names = null;
+            }
+        } else {
+            char c = key.charAt(depth);
+            Node child = node.child(c);
+            if (child != null && removeFrom(child, key, depth + 1, name)) {
+                node.removeChild(c);
+            }
+        }
+        return node.names == null && node.size == 0;
+    }
+
+    private static boolean collect(Node node, int limit, List<String> out) {
+        if (node.names != null) {
+            for (String name : node.names.keySet()) {
+                if (out.size() >= limit) {
+                    return true;
+                }
+                out.add(name);
+            }
+        }
+        for (int i = 0; i < node.size; i++) {
+            if (out.size() >= limit || collect(node.children[i], limit, out)) {
+                return true;
+            }
+        }
+        return out.size() >= limit;
+    }
+
+    private record IndexedName(String name, Long version) {
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int size;
+        // Display names ending at this node with the number of products using
+        // each; null for inner nodes
+        private TreeMap<String, Integer> names;
+
+        Node child(char c) {
+            int pos = Arrays.binarySearch(keys, 0, size, c);
+            return pos >= 0 ? children[pos] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int pos = Arrays.binarySearch(keys, 0, size, c);
+            if (pos >= 0) {
+                return children[pos];
+            }
+            int insertAt = -pos - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+            Node child = new Node();
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char c) {
+            int pos = Arrays.binarySearch(keys, 0, size, c);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(keys, pos + 1, keys, pos, size - pos - 1);
+            System.arraycopy(children, pos + 1, children, pos, size - pos - 1);
+            size--;
+            children[size] = null;
+        }
+    }
+}
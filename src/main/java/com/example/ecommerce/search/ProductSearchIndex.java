@@ -0,0 +1,174 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.event.ProductTombstones;
+import com.example.ecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product names and descriptions. Each term maps
+ * to a sorted list of product ids; a multi-term query intersects the lists,
+ * starting from the rarest term. The index is loaded once the application is
+ * ready and then follows {@link ProductChangeEvent}s after each commit.
+ * Events can arrive out of order, so one older than the indexed version of
+ * its product, or for a product deleted meanwhile, is ignored.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    // Indexed text per product, needed to unindex it on update or delete
+    private final Map<Long, IndexedText> documents = new HashMap<>();
+    private final ProductTombstones deleted = new ProductTombstones();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    private ProductService productService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            productService.forEachProduct(product ->
+                    index(product.getId(), new IndexedText(product.getName(), product.getDescription(),
+                            product.getVersion())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            Long id = event.getProductId();
+            if (deleted.contains(id)) {
+                return;
+            }
+            if (event.getType() == ProductChangeEvent.Type.DELETED) {
+                deleted.add(id);
+                unindex(id);
+                return;
+            }
+            IndexedText current = documents.get(id);
+            if (current != null && !event.isNewerThan(current.version)) {
+                return;
+            }
+            unindex(id);
+            index(id, new IndexedText(event.getName(), event.getDescription(), event.getVersion()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of products whose name or description contains every term
+     * of the query, in ascending id order, at most {@code limit} of them.
+     */
+    public long[] search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            List<LongPostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                LongPostingList list = postings.get(term);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+            long[] candidates = lists.get(0).toArray();
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retainAll(candidates, count);
+            }
+            return Arrays.copyOf(candidates, Math.min(count, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Long id, IndexedText text) {
+        documents.put(id, text);
+        for (String term : text.terms) {
+            postings.computeIfAbsent(term, t -> new LongPostingList()).add(id);
+        }
+    }
+
+    private void unindex(Long id) {
+        IndexedText previous = documents.remove(id);
+        if (previous != null) {
+            for (String term : previous.terms) {
+                LongPostingList list = postings.get(term);
+                if (list != null) {
+                    list.remove(id);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    // Lower-cased runs of letters and digits; everything else separates terms
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static final class IndexedText {
+        private final Set<String> terms;
+        private final Long version;
+
+        IndexedText(String name, String description, Long version) {
+            this.terms = tokenize(name);
+            this.terms.addAll(tokenize(description));
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.BulkItemResult;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.validation.ProductValidator;
+import com.example.ecommerce.validation.ValidationError;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validates and writes many products in one transaction. Items without an id
+ * are inserted, starting at version 0 whatever version they carry, as with
+ * {@code POST /products}. Items with an id update the existing row; one that
+ * carries a version only applies while the row is still at that version and
+ * is reported as a conflict otherwise, like PUT with If-Match, while one
+ * without a version overwrites the row unconditionally. Writes are flushed
+ * in groups of {@link #BATCH_SIZE} so Hibernate sends them as JDBC batches,
+ * and the persistence context is cleared after each group to keep memory flat.
+ */
+@Service
+public class ProductBulkService {
+
+    public static final int MAX_ITEMS = 5000;
+
+    // Matches spring.jpa.properties.hibernate.jdbc.batch_size
+    static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public List<BulkItemResult> upsert(List<Product> items) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Integer> inserts = new ArrayList<>();
+        List<Integer> updates = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Product item = items.get(i);
+            String error = validate(item);
+            if (error != null) {
+                results[i] = BulkItemResult.invalid(i, item == null ? null : item.getId(), error);
+            } else if (item.getId() == null) {
+                inserts.add(i);
+            } else {
+                updates.add(i);
+            }
+        }
+
+        for (int from = 0; from < updates.size(); from += BATCH_SIZE) {
+            applyUpdates(items, updates.subList(from, Math.min(from + BATCH_SIZE, updates.size())), results);
+        }
+
+        for (int n = 0; n < inserts.size(); n++) {
+            int index = inserts.get(n);
+            Product product = items.get(index);
+            // The version is the server's to assign
+            product.setVersion(null);
+            entityManager.persist(product);
+            results[index] = BulkItemResult.created(index, product.getId());
+            if ((n + 1) % BATCH_SIZE == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+
+        return Arrays.asList(results);
+    }
+
+    // Loads the whole group with one IN query, then lets dirty checking emit
+    // the UPDATEs as a single batch on flush
+    private void applyUpdates(List<Product> items, List<Integer> group, BulkItemResult[] results) {
+        List<Long> ids = new ArrayList<>(group.size());
+        for (int index : group) {
+            ids.add(items.get(index).getId());
+        }
+        Map<Long, Product> existing = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            existing.put(product.getId(), product);
+        }
+        for (int index : group) {
+            Product item = items.get(index);
+            Product product = existing.get(item.getId());
+            if (product == null) {
+                results[index] = BulkItemResult.notFound(index, item.getId());
+                continue;
+            }
+            if (item.getVersion() != null && !item.getVersion().equals(product.getVersion())) {
+                results[index] = BulkItemResult.conflict(index, item.getId(), product.getVersion());
+                continue;
+            }
+            product.setName(item.getName());
+            product.setDescription(item.getDescription());
+            product.setPriceMinor(item.getPriceMinor());
+            product.setCurrency(item.getCurrency());
+            results[index] = BulkItemResult.updated(index, product.getId());
+        }
+        flushAndClear();
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static String validate(Product product) {
+        ValidationError error = ProductValidator.validate(product);
+        return error == null ? null : error.getMessage();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.util.Prices;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streams the whole catalog to an output stream without holding it in memory.
+ * Rows are read in keyset batches (see {@link ProductService#forEachProductBatch})
+ * and flushed to the client after each batch, so heap use does not grow with
+ * the catalog size and no database connection is held while the client reads.
+ */
+@Service
+public class ProductExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value, e);
+            }
+        }
+    }
+
+    // Rows read per query; each batch is flushed so the client sees steady progress
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        try {
+            productService.forEachProductBatch(BATCH_SIZE, batch -> {
+                try {
+                    for (Product product : batch) {
+                        rowWriter.write(product);
+                    }
+                    rowWriter.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.flush();
+    }
+
+    private interface RowWriter {
+        void write(Product product) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+        private final ObjectWriter productWriter;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.productWriter = objectMapper.writerFor(Product.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(Product product) throws IOException {
+            productWriter.writeValue(generator, product);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            writer.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            writer.write("id,name,description,price,currency\n");
+        }
+
+        @Override
+        public void write(Product product) throws IOException {
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writeField(product.getName());
+            writer.write(',');
+            writeField(product.getDescription());
+            writer.write(',');
+            writer.write(Prices.format(product.getPriceMinor()));
+            writer.write(',');
+            writeField(product.getCurrency());
+            writer.write('\n');
+        }
+
+        // RFC 4180 quoting: only fields containing separators, quotes or line
+        // breaks are quoted, with embedded quotes doubled
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean needsQuotes = false;
+            for (int i = 0; i < value.length() && !needsQuotes; i++) {
+                char c = value.charAt(i);
+                needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!needsQuotes) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor that runs repository work for the asynchronous endpoints,
+ * so request threads are released while JPA queries run and a slow endpoint
+ * can only tie up this executor. At most {@code catalog.async.threads}
+ * queries run at once and {@code catalog.async.queue-capacity} wait; further
+ * submissions are rejected straight away rather than queued without limit.
+ * <p>
+ * Work runs on a fixed pool of platform threads, or, when
+ * {@code spring.threads.virtual.enabled} is set, on a new virtual thread per
+ * query. Virtual threads are not pooled, so two semaphores take the
+ * place of the pool and its queue: one admits running plus waiting queries,
+ * the other lets only {@code catalog.async.threads} of them run.
+ * <p>
+ * Running and waiting queries are published as the {@code executor.active}
+ * and {@code executor.queued} gauges tagged {@code name=productQuery} (the
+ * platform pool publishes the other {@code executor.*} meters as well);
+ * rejections and timeouts are counted as {@code product.query.rejected} and
+ * {@code product.query.timeouts}.
+ */
+@Component
+public class ProductQueryExecutor implements DisposableBean {
+
+    private static final String METRICS_NAME = "productQuery";
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final int capacity;
+    // Virtual-thread mode only; null with the platform pool
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final long timeoutMillis;
+    private final Counter rejected;
+    private final Counter timeouts;
+
+    public ProductQueryExecutor(@Value("${catalog.async.threads:8}") int threads,
+                                @Value("${catalog.async.queue-capacity:100}") int queueCapacity,
+                                @Value("${catalog.async.timeout:5s}") Duration timeout,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                MeterRegistry meterRegistry) {
+        this.threads = threads;
+        this.capacity = threads + queueCapacity;
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("product-query-", 1).factory());
+            this.admitted = new Semaphore(capacity);
+            this.running = new Semaphore(threads);
+            Tags tags = Tags.of("name", METRICS_NAME);
+            Gauge.builder("executor.active", this, ProductQueryExecutor::activeCount)
+                    .tags(tags)
+                    .description("Queries currently running")
+                    .register(meterRegistry);
+            Gauge.builder("executor.queued", this, queries -> queries.inFlightCount() - queries.activeCount())
+                    .tags(tags)
+                    .description("Queries waiting for a slot to run")
+                    .register(meterRegistry);
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "product-query-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.executor = pool;
+            this.admitted = null;
+            this.running = null;
+            ExecutorServiceMetrics.monitor(meterRegistry, pool, METRICS_NAME);
+        }
+        this.timeoutMillis = timeout.toMillis();
+        this.rejected = Counter.builder("product.query.rejected")
+                .description("Asynchronous queries rejected because the executor and its queue were full")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("product.query.timeouts")
+                .description("Asynchronous queries that did not complete in time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} on the executor. The returned future fails with a
+     * {@link TimeoutException} if the work has not finished within
+     * {@code catalog.async.timeout}; the work itself is not interrupted.
+     *
+     * @throws RejectedExecutionException when the executor and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future;
+        try {
+            future = admitted == null
+                    ? CompletableFuture.supplyAsync(work, executor)
+                    : supplyOnVirtualThread(work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        return future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        timeouts.increment();
+                    }
+                });
+    }
+
+    private <T> CompletableFuture<T> supplyOnVirtualThread(Supplier<T> work) {
+        if (!admitted.tryAcquire()) {
+            throw new RejectedExecutionException("Too many queries running or waiting");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    running.acquire();
+                } catch (InterruptedException e) {
+                    admitted.release();
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+                try {
+                    return work.get();
+                } finally {
+                    running.release();
+                    admitted.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    private int activeCount() {
+        return threads - running.availablePermits();
+    }
+
+    private int inFlightCount() {
+        return capacity - admitted.availablePermits();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,37 +1,94 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.cache.ProductCache;
+import com.example.ecommerce.event.ProductChangeEvent;
 import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductBatch;
+import com.example.ecommerce.model.ProductPage;
+import com.example.ecommerce.model.ProductPatch;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductRow;
+import com.example.ecommerce.util.PageCursor;
+import com.example.ecommerce.util.SingleFlight;
+import com.example.ecommerce.validation.ProductValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
+
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "price", "name");
+    // Ids per IN query of a multi-get
+    static final int ID_CHUNK_SIZE = 500;
     
     @Autowired
     private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Concurrent identical listings share one query. Reads by id need no
+    // flight of their own: ProductCache runs a single load per id and makes
+    // concurrent misses wait for it
+    private SingleFlight<String, List<Product>> catalogLoads;
+    private SingleFlight<PageKey, ProductPage> pageLoads;
+
+    @PostConstruct
+    void initLoadCoalescing() {
+        catalogLoads = new SingleFlight<>("catalog", meterRegistry);
+        pageLoads = new SingleFlight<>("page", meterRegistry);
+    }
     
     // Duplicate business logic - security hotspot
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        // Each caller gets its own list; the products in it are shared
+        return new ArrayList<>(catalogLoads.execute("all", productRepository::findAll));
     }
     
     // Duplicate business logic - security hotspot (same as above)
     public List<Product> retrieveAllProducts() {
-        return productRepository.findAll();
+        return new ArrayList<>(catalogLoads.execute("all", productRepository::findAll));
     }
     
     // Duplicate business logic - security hotspot
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        return productCache.get(id, this::loadProduct);
     }
     
     // Duplicate business logic - security hotspot (same as above)
     public Optional<Product> findProductById(Long productId) {
-        return productRepository.findById(productId);
+        return productCache.get(productId, this::loadProduct);
+    }
+
+    private Optional<Product> loadProduct(Long id) {
+        return productRepository.findById(id);
     }
     
     // Duplicate business logic - security hotspot
@@ -54,17 +111,205 @@ public class ProductService {
         productRepository.deleteById(productId);
     }
     
+    /**
+     * Looks up many products with one IN query per {@value #ID_CHUNK_SIZE} ids.
+     * Items follow the order of {@code ids}; repeated ids appear once.
+     */
+    public ProductBatch getProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Product> found = new HashMap<>(distinctIds.size() * 2);
+        for (int from = 0; from < distinctIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + ID_CHUNK_SIZE, distinctIds.size()));
+            for (Product product : productRepository.findAllById(chunk)) {
+                found.put(product.getId(), product);
+            }
+        }
+        List<Product> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                items.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(items, missing);
+    }
+
+    /**
+     * Returns one keyset page of products with prices in [minPrice, maxPrice]
+     * (both optional), in ascending order of {@code sort} ("id", "price" or
+     * "name", optionally suffixed with ",asc") with id as the tie-breaker.
+     *
+     * Concurrent requests for the same page share one query, and the page
+     * they receive must not be modified.
+     *
+     * @throws IllegalArgumentException for an unsupported sort or a bad cursor
+     */
+    public ProductPage getProductPage(String after, int limit, Double minPrice, Double maxPrice, String sort) {
+        return pageLoads.execute(new PageKey(after, limit, minPrice, maxPrice, sort),
+                () -> loadProductPage(after, limit, minPrice, maxPrice, sort));
+    }
+
+    private ProductPage loadProductPage(String after, int limit, Double minPrice, Double maxPrice, String sort) {
+        String[] sortParts = sort.split(",", 2);
+        String field = sortParts[0].trim();
+        if (!SORTABLE_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Cannot sort by " + field);
+        }
+        // Descending scans cannot use the ascending (column, id) indexes in H2
+        if (sortParts.length > 1 && !sortParts[1].trim().equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("Only ascending order is supported");
+        }
+
+        if (field.equals("id") && minPrice == null && maxPrice == null) {
+            return getProductPageById(PageCursor.decode(after), limit);
+        }
+
+        Object afterValue = null;
+        Long afterId = null;
+        if (after != null && !after.isEmpty()) {
+            if (field.equals("id")) {
+                afterId = PageCursor.decode(after);
+            } else {
+                PageCursor cursor = PageCursor.decode(after, field);
+                afterId = cursor.getId();
+                afterValue = field.equals("price") ? Long.valueOf(cursor.getValue()) : cursor.getValue();
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Product> rows = productRepository.findKeysetPage(field, minPrice, maxPrice, afterValue, afterId, limit + 1);
+        if (rows.size() <= limit) {
+            return new ProductPage(rows, null);
+        }
+        List<Product> items = rows.subList(0, limit);
+        Product last = items.get(limit - 1);
+        String nextCursor = switch (field) {
+            case "price" -> PageCursor.encode(field, last.getPriceMinor(), last.getId());
+            case "name" -> PageCursor.encode(field, last.getName(), last.getId());
+            default -> PageCursor.encode(last.getId());
+        };
+        return new ProductPage(items, nextCursor);
+    }
+
+    private ProductPage getProductPageById(long afterId, int limit) {
+        List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit + 1));
+        if (rows.size() <= limit) {
+            return new ProductPage(rows, null);
+        }
+        List<Product> items = rows.subList(0, limit);
+        return new ProductPage(items, PageCursor.encode(items.get(limit - 1).getId()));
+    }
+
+    // Overwrites all fields with one UPDATE; empty when the product does not exist
+    public Optional<Product> updateProduct(Long id, Product productDetails) {
+        return updateProduct(id, productDetails, null);
+    }
+
+    /**
+     * Overwrites all fields with one UPDATE and returns the stored result.
+     * When {@code expectedVersion} is given the update only applies if the
+     * stored version still matches.
+     *
+     * @return the updated product, or empty when it does not exist
+     * @throws OptimisticLockingFailureException when the version differs
+     */
+    public Optional<Product> updateProduct(Long id, Product productDetails, Long expectedVersion) {
+        List<ProductRow> rows = productRepository.updateById(id, productDetails.getName(),
+                productDetails.getDescription(), productDetails.getPriceMinor(), productDetails.getCurrency(),
+                expectedVersion);
+        return published(id, rows, expectedVersion);
+    }
+
+    // Applies the non-null fields of the patch with one UPDATE
+    public Optional<Product> patchProduct(Long id, ProductPatch patch) {
+        return patchProduct(id, patch, null);
+    }
+
+    // Like updateProduct, for the non-null fields of the patch
+    public Optional<Product> patchProduct(Long id, ProductPatch patch, Long expectedVersion) {
+        List<ProductRow> rows = productRepository.patchById(id, patch.getName(), patch.getDescription(),
+                patch.getPriceMinor(), patch.getCurrency(), expectedVersion);
+        return published(id, rows, expectedVersion);
+    }
+
+    /**
+     * Deletes the product only if its stored version still matches.
+     *
+     * @return false when the product does not exist
+     * @throws OptimisticLockingFailureException when the version differs
+     */
+    public boolean deleteProduct(Long id, long expectedVersion) {
+        if (productRepository.deleteByIdAndVersion(id, expectedVersion) == 0) {
+            if (productRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Product " + id + " has been modified");
+            }
+            return false;
+        }
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(id));
+        return true;
+    }
+
+    private Optional<Product> published(Long id, List<ProductRow> rows, Long expectedVersion) {
+        if (rows.isEmpty()) {
+            // Only a conditional write needs the extra lookup to tell the cases apart
+            if (expectedVersion != null && productRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Product " + id + " has been modified");
+            }
+            return Optional.empty();
+        }
+        Product updated = rows.get(0).toProduct();
+        // Native updates skip the entity callbacks, so announce the change here
+        eventPublisher.publishEvent(ProductChangeEvent.updated(updated));
+        return Optional.of(updated);
+    }
+
+    // Visits every product in id order through a database cursor, detaching
+    // each one afterwards so memory use does not grow with the catalog
+    @Transactional(readOnly = true)
+    public void forEachProduct(Consumer<Product> action) {
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            products.forEach(product -> {
+                action.accept(product);
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    // Visits every product in id order, one keyset page of batchSize at a
+    // time. Each page is its own short query, so no connection or transaction
+    // is held while the caller works on a page, e.g. writes it to a slow
+    // client. Rows are detached after each page so an open-in-view session
+    // does not collect them.
+    public void forEachProductBatch(int batchSize, Consumer<List<Product>> action) {
+        long afterId = 0;
+        while (true) {
+            List<Product> batch = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            action.accept(batch);
+            afterId = batch.get(batch.size() - 1).getId();
+            batch.forEach(entityManager::detach);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
     // Duplicate validation logic - security hotspot
     public boolean isValidProduct(Product product) {
-        return product.getName() != null && 
-               !product.getName().trim().isEmpty() && 
-               product.getPrice() > 0.0;
+        return ProductValidator.validate(product) == null;
     }
     
     // Duplicate validation logic - security hotspot (same as above)
     public boolean validateProduct(Product productToValidate) {
-        return productToValidate.getName() != null && 
-               !productToValidate.getName().trim().isEmpty() && 
-               productToValidate.getPrice() > 0.0;
+        return ProductValidator.validate(productToValidate) == null;
+    }
+
+    // Identifies a listing request for pageLoads
+    private record PageKey(String after, int limit, Double minPrice, Double maxPrice, String sort) {
     }
 }
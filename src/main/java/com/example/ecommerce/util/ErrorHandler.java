@@ -1,19 +1,16 @@
 package com.example.ecommerce.util;
 
+import com.example.ecommerce.validation.ValidationError;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 public class ErrorHandler {
-    
-    // Duplicate error handling - security hotspot
-    public static void handleValidationError(RedirectAttributes redirectAttributes, String field, String message) {
-        redirectAttributes.addFlashAttribute("errorMessage", field + ": " + message);
-        redirectAttributes.addFlashAttribute("errorField", field);
-    }
-    
-    // Duplicate error handling - security hotspot (same logic as above)
-    public static void addValidationError(RedirectAttributes redirectAttributes, String fieldName, String errorMessage) {
-        redirectAttributes.addFlashAttribute("errorMessage", fieldName + ": " + errorMessage);
-        redirectAttributes.addFlashAttribute("errorField", fieldName);
+
+    // Flash attributes for a rule the submitted product broke, the same
+    // error codes the REST API reports
+    public static void addValidationError(RedirectAttributes redirectAttributes, ValidationError error) {
+        redirectAttributes.addFlashAttribute("errorMessage", error.getMessage());
+        redirectAttributes.addFlashAttribute("errorCode", error.getCode());
+        redirectAttributes.addFlashAttribute("errorField", error.getField());
     }
     
     // Duplicate success message handling - security hotspot
@@ -25,16 +22,4 @@ public class ErrorHandler {
     public static void addSuccessMessage(RedirectAttributes redirectAttributes, String operation, String item) {
         redirectAttributes.addFlashAttribute("successMessage", item + " " + operation + " successfully!");
     }
-    
-    // Duplicate exception handling - security hotspot
-    public static String handleDatabaseException(Exception e, RedirectAttributes redirectAttributes) {
-        redirectAttributes.addFlashAttribute("errorMessage", "Database error occurred: " + e.getMessage());
-        return "redirect:/web/products";
-    }
-    
-    // Duplicate exception handling - security hotspot (same logic as above)
-    public static String processDatabaseError(Exception exception, RedirectAttributes redirectAttributes) {
-        redirectAttributes.addFlashAttribute("errorMessage", "Database error occurred: " + exception.getMessage());
-        return "redirect:/web/products";
-    }
 }
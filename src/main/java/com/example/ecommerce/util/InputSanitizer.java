@@ -0,0 +1,151 @@
+package com.example.ecommerce.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Removes {@code <script>}, {@code </script>} and {@code javascript:} from
+ * user input and trims it, in one pass over the characters.
+ * <p>
+ * Output is built only once something has to be removed; input that needs
+ * no change comes back as the same String (or its {@code trim()}). A token is
+ * detected when its last character is appended to the output, so one that
+ * only appears after an inner token is removed ({@code <scr<script>ipt>}) is
+ * removed too and no token is left in the result.
+ */
+public final class InputSanitizer {
+
+    private static final char[] SCRIPT_OPEN = "<script>".toCharArray();
+    private static final char[] SCRIPT_CLOSE = "</script>".toCharArray();
+    private static final char[] JAVASCRIPT = "javascript:".toCharArray();
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private InputSanitizer() {
+    }
+
+    public static String sanitize(String input) {
+        if (input == null) {
+            return "";
+        }
+        int end = firstTokenEnd(input);
+        if (end < 0) {
+            return input.trim();
+        }
+        // Output is never longer than the input
+        char[] out = new char[input.length()];
+        input.getChars(0, end, out, 0);
+        int length = removeTokenAtEnd(out, end);
+        for (int i = end; i < input.length(); i++) {
+            length = append(out, length, input.charAt(i));
+        }
+        return trim(out, length);
+    }
+
+    public static String sanitize(CharSequence input) {
+        if (input == null || input instanceof String) {
+            return sanitize((String) input);
+        }
+        char[] out = new char[input.length()];
+        int length = 0;
+        for (int i = 0; i < input.length(); i++) {
+            length = append(out, length, input.charAt(i));
+        }
+        return trim(out, length);
+    }
+
+    // For large values, so the raw input never has to be held as a String
+    public static String sanitize(Reader input) throws IOException {
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        char[] out = new char[READ_BUFFER_SIZE];
+        int length = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            if (out.length - length < read) {
+                out = Arrays.copyOf(out, Math.max(out.length * 2, length + read));
+            }
+            for (int i = 0; i < read; i++) {
+                length = append(out, length, buffer[i]);
+            }
+        }
+        return trim(out, length);
+    }
+
+    // Index just past the first token in the input, or -1 if there is none
+    private static int firstTokenEnd(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '>') {
+                if (endsWith(input, i + 1, SCRIPT_OPEN) || endsWith(input, i + 1, SCRIPT_CLOSE)) {
+                    return i + 1;
+                }
+            } else if (c == ':' && endsWith(input, i + 1, JAVASCRIPT)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // Appends c and returns the new length, less any token it completed
+    private static int append(char[] out, int length, char c) {
+        out[length++] = c;
+        return c == '>' || c == ':' ? removeTokenAtEnd(out, length) : length;
+    }
+
+    // What is left after a removal was token-free when it was written, so a
+    // single check per appended character is enough. Only called when the
+    // last character is '>' or ':', which every token ends with
+    private static int removeTokenAtEnd(char[] out, int length) {
+        if (out[length - 1] == '>') {
+            if (endsWith(out, length, SCRIPT_OPEN)) {
+                return length - SCRIPT_OPEN.length;
+            }
+            if (endsWith(out, length, SCRIPT_CLOSE)) {
+                return length - SCRIPT_CLOSE.length;
+            }
+        } else if (endsWith(out, length, JAVASCRIPT)) {
+            return length - JAVASCRIPT.length;
+        }
+        return length;
+    }
+
+    // The caller has matched the last character already
+    private static boolean endsWith(char[] text, int end, char[] token) {
+        int start = end - token.length;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = token.length - 2; i >= 0; i--) {
+            if (text[start + i] != token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean endsWith(String text, int end, char[] token) {
+        int start = end - token.length;
+        if (start < 0) {
+            return false;
+        }
+        for (int i = token.length - 2; i >= 0; i--) {
+            if (text.charAt(start + i) != token[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same characters as String.trim()
+    private static String trim(char[] out, int length) {
+        int start = 0;
+        int end = length;
+        while (start < end && out[start] <= ' ') {
+            start++;
+        }
+        while (end > start && out[end - 1] <= ' ') {
+            end--;
+        }
+        return new String(out, start, end - start);
+    }
+}
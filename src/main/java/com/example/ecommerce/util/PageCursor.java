@@ -0,0 +1,81 @@
+package com.example.ecommerce.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation tokens for keyset pagination. A cursor wraps the id of
+ * the last row on the previous page and, for listings sorted by another
+ * column, that row's sort value; plain numeric ids are accepted as well so
+ * callers can start from a known id.
+ */
+public final class PageCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final char SEPARATOR = '\n';
+
+    private final long id;
+    private final String value;
+
+    private PageCursor(long id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public long getId() { return id; }
+    public String getValue() { return value; }
+
+    public static String encode(long lastId) {
+        return ENCODER.encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Cursor for a listing ordered by (field, id)
+    public static String encode(String field, Object lastValue, long lastId) {
+        String raw = field + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            if (isDigits(cursor)) {
+                return Long.parseLong(cursor);
+            }
+            return Long.parseLong(new String(DECODER.decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(String, Object, long)} for the
+     * given sort field; cursors from a listing with a different order are
+     * rejected.
+     */
+    public static PageCursor decode(String cursor, String field) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+            if (second < 0 || !raw.substring(0, first).equals(field)) {
+                throw new IllegalArgumentException("cursor does not belong to a listing sorted by " + field);
+            }
+            return new PageCursor(Long.parseLong(raw.substring(first + 1, second)), raw.substring(second + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    private static boolean isDigits(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
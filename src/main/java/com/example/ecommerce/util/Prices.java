@@ -0,0 +1,120 @@
+package com.example.ecommerce.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions for prices kept as a {@code long} count of minor units
+ * (hundredths of the currency unit, e.g. cents) next to an ISO 4217 currency
+ * code. Every currency uses two decimals here, including those whose real
+ * minor unit differs.
+ */
+public final class Prices {
+
+    public static final int SCALE = 2;
+    public static final String DEFAULT_CURRENCY = "USD";
+    // Larger amounts could overflow once scaled to minor units
+    private static final int MAX_INTEGER_DIGITS = 15;
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private Prices() {
+    }
+
+    // Nearest minor-unit amount; exact for any double written with at most
+    // two decimals
+    public static long toMinor(double price) {
+        return Math.round(price * 100);
+    }
+
+    public static double toDouble(long minor) {
+        return minor / 100.0;
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // Smallest minor-unit amount at or above price, for inclusive lower bounds
+    public static long ceilMinor(double price) {
+        return clampToLong(BigDecimal.valueOf(price).movePointRight(SCALE).setScale(0, RoundingMode.CEILING));
+    }
+
+    // Largest minor-unit amount at or below price, for inclusive upper bounds
+    public static long floorMinor(double price) {
+        return clampToLong(BigDecimal.valueOf(price).movePointRight(SCALE).setScale(0, RoundingMode.FLOOR));
+    }
+
+    // Bounds beyond the long range match the same prices as the range's ends
+    private static long clampToLong(BigDecimal minor) {
+        if (minor.compareTo(LONG_MAX) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (minor.compareTo(LONG_MIN) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return minor.longValue();
+    }
+
+    // Plain decimal with exactly two fraction digits, e.g. "1299.99" or "-0.50"
+    public static String format(long minor) {
+        return toDecimal(minor).toPlainString();
+    }
+
+    /**
+     * Parses a decimal amount such as {@code 12}, {@code 12.5} or
+     * {@code -0.99} straight into minor units, without creating a String or
+     * BigDecimal. At most two fraction digits and no exponent are accepted.
+     *
+     * @throws NumberFormatException for anything else
+     */
+    public static long parseMinor(CharSequence text) {
+        return parseMinor(text, null, 0, text.length());
+    }
+
+    // Same, over a slice of a character buffer such as a JSON parser's
+    public static long parseMinor(char[] chars, int offset, int length) {
+        return parseMinor(null, chars, offset, length);
+    }
+
+    // Reads from text, or from chars when text is null
+    private static long parseMinor(CharSequence text, char[] chars, int offset, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char sign = text != null ? text.charAt(0) : chars[offset];
+            if (sign == '-' || sign == '+') {
+                negative = sign == '-';
+                i++;
+            }
+        }
+        long minor = 0;
+        int integerDigits = 0;
+        // -1 until the decimal point has been seen
+        int fractionDigits = -1;
+        for (; i < length; i++) {
+            char c = text != null ? text.charAt(i) : chars[offset + i];
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            boolean fits = fractionDigits < 0 ? ++integerDigits <= MAX_INTEGER_DIGITS : ++fractionDigits <= SCALE;
+            if (c < '0' || c > '9' || !fits) {
+                throw invalid(text, chars, offset, length);
+            }
+            minor = minor * 10 + (c - '0');
+        }
+        if (integerDigits == 0 && fractionDigits <= 0) {
+            throw invalid(text, chars, offset, length);
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < SCALE; scale++) {
+            minor *= 10;
+        }
+        return negative ? -minor : minor;
+    }
+
+    private static NumberFormatException invalid(CharSequence text, char[] chars, int offset, int length) {
+        String value = text != null ? text.toString() : new String(chars, offset, length);
+        return new NumberFormatException("Not a price with at most " + SCALE + " decimals: " + value);
+    }
+}
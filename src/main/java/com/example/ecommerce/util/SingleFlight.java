@@ -0,0 +1,75 @@
+package com.example.ecommerce.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller runs the
+ * loader, callers arriving while it is in flight wait for and share its
+ * result (or exception) instead of running their own. Nothing is kept once
+ * the load finishes, so this is not a cache.
+ * <p>
+ * A caller may receive a result whose load started shortly before it
+ * arrived. Results are shared between callers and must not be modified.
+ * <p>
+ * Loads are counted as the {@code single.flight.loads} meter, tagged with the
+ * flight name and {@code result=executed} or {@code result=coalesced}.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = Counter.builder("single.flight.loads")
+                .tag("flight", name).tag("result", "executed")
+                .description("Loads that ran the loader")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("single.flight.loads")
+                .tag("flight", name).tag("result", "coalesced")
+                .description("Loads that shared another caller's in-flight result")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        executed.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw, as the leading caller saw it
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
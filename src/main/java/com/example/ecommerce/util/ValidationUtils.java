@@ -1,64 +1,45 @@
 package com.example.ecommerce.util;
 
-import java.util.regex.Pattern;
+import com.example.ecommerce.validation.ProductValidator;
 
 public class ValidationUtils {
+
+    private static final double MAX_PRICE = Prices.toDouble(ProductValidator.MAX_PRICE_MINOR);
     
     // Duplicate validation method - security hotspot
     public static boolean isValidProductName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            return false;
-        }
-        if (name.length() > 100) {
-            return false;
-        }
-        // Duplicate regex pattern - security hotspot
-        Pattern pattern = Pattern.compile("^[a-zA-Z0-9\\s\\-_]+$");
-        return pattern.matcher(name).matches();
+        return ProductValidator.validateName(name) == null;
     }
     
     // Duplicate validation method - security hotspot (same logic as above)
     public static boolean validateProductName(String productName) {
-        if (productName == null || productName.trim().isEmpty()) {
-            return false;
-        }
-        if (productName.length() > 100) {
-            return false;
-        }
-        // Duplicate regex pattern - security hotspot
-        Pattern pattern = Pattern.compile("^[a-zA-Z0-9\\s\\-_]+$");
-        return pattern.matcher(productName).matches();
+        return ProductValidator.validateName(productName) == null;
     }
     
     // Duplicate price validation - security hotspot
     public static boolean isValidPrice(double price) {
-        return price > 0.0 && price <= 999999.99;
+        return isInPriceRange(price);
     }
     
     // Duplicate price validation - security hotspot (same logic as above)
     public static boolean validateProductPrice(double productPrice) {
-        return productPrice > 0.0 && productPrice <= 999999.99;
+        return isInPriceRange(productPrice);
+    }
+    
+    // The original double comparison, without rounding to minor units first
+    // as ProductValidator.validatePrice does, so these helpers keep their
+    // edges: 0.004 passes and 999999.994 fails
+    private static boolean isInPriceRange(double price) {
+        return price > 0.0 && price <= MAX_PRICE;
     }
     
     // Duplicate string sanitization - security hotspot
     public static String sanitizeInput(String input) {
-        if (input == null) {
-            return "";
-        }
-        return input.replaceAll("<script>", "")
-                   .replaceAll("</script>", "")
-                   .replaceAll("javascript:", "")
-                   .trim();
+        return InputSanitizer.sanitize(input);
     }
     
     // Duplicate string sanitization - security hotspot (same logic as above)
     public static String cleanUserInput(String userInput) {
-        if (userInput == null) {
-            return "";
-        }
-        return userInput.replaceAll("<script>", "")
-                       .replaceAll("</script>", "")
-                       .replaceAll("javascript:", "")
-                       .trim();
+        return InputSanitizer.sanitize(userInput);
     }
 }
@@ -0,0 +1,55 @@
+package com.example.ecommerce.validation;
+
+/**
+ * Matcher for the product name character class {@code [a-zA-Z0-9\s\-_]}
+ * ({@code \s} being ASCII whitespace, as in java.util.regex). The class is
+ * held as a 128-bit mask, so a match is a bounds check and a bit test per
+ * character, with no Matcher to allocate.
+ */
+final class NameCharacters {
+
+    // Bit c of LOW for c < 64, bit c - 64 of HIGH for 64 <= c < 128
+    private static final long LOW;
+    private static final long HIGH;
+
+    static {
+        long low = 0;
+        long high = 0;
+        String allowed = " \t\n\u000B\f\r-_";
+        for (char c = 0; c < 128; c++) {
+            boolean match = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || allowed.indexOf(c) >= 0;
+            if (match && c < 64) {
+                low |= 1L << c;
+            } else if (match) {
+                high |= 1L << (c - 64);
+            }
+        }
+        LOW = low;
+        HIGH = high;
+    }
+
+    private NameCharacters() {
+    }
+
+    static boolean matches(char c) {
+        if (c < 64) {
+            return (LOW & (1L << c)) != 0;
+        }
+        return c < 128 && (HIGH & (1L << (c - 64))) != 0;
+    }
+
+    // True when every character is in the class; false for an empty sequence
+    static boolean matchesAll(CharSequence value) {
+        int length = value.length();
+        if (length == 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!matches(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
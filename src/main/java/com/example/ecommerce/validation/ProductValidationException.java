@@ -0,0 +1,32 @@
+package com.example.ecommerce.validation;
+
+/**
+ * A product broke a validation rule. There is one preallocated instance per
+ * {@link ValidationError}, created without a stack trace or suppressed
+ * exceptions, so rejecting bad input costs no more than a return. Instances
+ * are immutable and safe to throw from any thread; the trace would only ever
+ * point at the validator anyway.
+ */
+public final class ProductValidationException extends RuntimeException {
+
+    private static final ProductValidationException[] INSTANCES = new ProductValidationException[ValidationError.values().length];
+
+    static {
+        for (ValidationError error : ValidationError.values()) {
+            INSTANCES[error.ordinal()] = new ProductValidationException(error);
+        }
+    }
+
+    private final transient ValidationError error;
+
+    private ProductValidationException(ValidationError error) {
+        super(error.getMessage(), null, false, false);
+        this.error = error;
+    }
+
+    public static ProductValidationException of(ValidationError error) {
+        return INSTANCES[error.ordinal()];
+    }
+
+    public ValidationError getError() { return error; }
+}
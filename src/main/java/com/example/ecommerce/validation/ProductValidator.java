@@ -0,0 +1,135 @@
+package com.example.ecommerce.validation;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPatch;
+import com.example.ecommerce.util.Prices;
+
+/**
+ * The product validation rules, shared by the REST, web and bulk entry
+ * points. Rules are built once as stateless lambdas and evaluated in order;
+ * evaluation stops at the first failure and returns its
+ * {@link ValidationError}, or null when the value is valid. Nothing is
+ * allocated on either path: names are checked for blankness without
+ * trimming, and the name character class is matched by {@link NameCharacters}
+ * rather than a regex.
+ */
+public final class ProductValidator {
+
+    public static final int MAX_NAME_LENGTH = 100;
+    public static final long MAX_PRICE_MINOR = 99_999_999L;
+
+    @FunctionalInterface
+    private interface Rule<T> {
+        ValidationError check(T value);
+    }
+
+    // Same order as the checks this replaced, so the same message wins
+    private static final Rule<Product>[] PRODUCT_RULES = rules(
+            product -> isBlank(product.getName()) ? ValidationError.NAME_EMPTY : null,
+            product -> product.getPriceMinor() <= 0 ? ValidationError.PRICE_NOT_POSITIVE : null,
+            product -> product.getName().length() > MAX_NAME_LENGTH ? ValidationError.NAME_TOO_LONG : null,
+            product -> product.getPriceMinor() > MAX_PRICE_MINOR ? ValidationError.PRICE_TOO_HIGH : null,
+            product -> isCurrencyCode(product.getCurrency()) ? null : ValidationError.CURRENCY_INVALID);
+
+    // Only the fields present in a patch are checked
+    private static final Rule<ProductPatch>[] PATCH_RULES = rules(
+            patch -> patch.getName() != null && isBlank(patch.getName()) ? ValidationError.NAME_EMPTY : null,
+            patch -> patch.getName() != null && patch.getName().length() > MAX_NAME_LENGTH ? ValidationError.NAME_TOO_LONG : null,
+            patch -> patch.getPriceMinor() != null && patch.getPriceMinor() <= 0 ? ValidationError.PRICE_NOT_POSITIVE : null,
+            patch -> patch.getPriceMinor() != null && patch.getPriceMinor() > MAX_PRICE_MINOR ? ValidationError.PRICE_TOO_HIGH : null,
+            patch -> patch.getCurrency() != null && !isCurrencyCode(patch.getCurrency()) ? ValidationError.CURRENCY_INVALID : null);
+
+    private static final Rule<String>[] NAME_RULES = rules(
+            name -> isBlank(name) ? ValidationError.NAME_EMPTY : null,
+            name -> name.length() > MAX_NAME_LENGTH ? ValidationError.NAME_TOO_LONG : null,
+            name -> NameCharacters.matchesAll(name) ? null : ValidationError.NAME_INVALID_CHARACTERS);
+
+    private ProductValidator() {
+    }
+
+    public static ValidationError validate(Product product) {
+        return product == null ? ValidationError.PRODUCT_MISSING : evaluate(PRODUCT_RULES, product);
+    }
+
+    public static ValidationError validate(ProductPatch patch) {
+        return evaluate(PATCH_RULES, patch);
+    }
+
+    /**
+     * @throws ProductValidationException for the first rule the product breaks
+     */
+    public static void requireValid(Product product) {
+        ValidationError error = validate(product);
+        if (error != null) {
+            throw ProductValidationException.of(error);
+        }
+    }
+
+    /**
+     * @throws ProductValidationException for the first rule the patch breaks
+     */
+    public static void requireValid(ProductPatch patch) {
+        ValidationError error = validate(patch);
+        if (error != null) {
+            throw ProductValidationException.of(error);
+        }
+    }
+
+    // A name on its own, including the allowed character class
+    public static ValidationError validateName(String name) {
+        return evaluate(NAME_RULES, name);
+    }
+
+    public static ValidationError validatePrice(double price) {
+        return validatePriceMinor(Prices.toMinor(price));
+    }
+
+    public static ValidationError validatePriceMinor(long priceMinor) {
+        if (priceMinor <= 0) {
+            return ValidationError.PRICE_NOT_POSITIVE;
+        }
+        return priceMinor > MAX_PRICE_MINOR ? ValidationError.PRICE_TOO_HIGH : null;
+    }
+
+    private static <T> ValidationError evaluate(Rule<T>[] rules, T value) {
+        for (Rule<T> rule : rules) {
+            ValidationError error = rule.check(value);
+            if (error != null) {
+                return error;
+            }
+        }
+        return null;
+    }
+
+    // Null, empty or only characters String.trim() would remove
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Three upper-case ASCII letters, as in ISO 4217
+    private static boolean isCurrencyCode(String value) {
+        if (value == null || value.length() != 3) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            char c = value.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SafeVarargs
+    private static <T> Rule<T>[] rules(Rule<T>... rules) {
+        return rules;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ecommerce.validation;
+
+import com.example.ecommerce.util.Prices;
+
+/**
+ * Reasons a product can be rejected. Each has a stable machine-readable
+ * {@code code}, the field it concerns and the message shown to users; the
+ * constants are shared, so reporting a failure allocates nothing.
+ */
+public enum ValidationError {
+    PRODUCT_MISSING("product.missing", "product", "Product cannot be null"),
+    NAME_EMPTY("name.empty", "name", "Product name cannot be empty"),
+    NAME_TOO_LONG("name.too_long", "name", "Product name cannot exceed " + ProductValidator.MAX_NAME_LENGTH + " characters"),
+    NAME_INVALID_CHARACTERS("name.invalid_characters", "name",
+            "Product name can only contain letters, digits, whitespace, '-' and '_'"),
+    PRICE_INVALID("price.invalid", "price", "Product price must be a number with at most " + Prices.SCALE + " decimals"),
+    PRICE_NOT_POSITIVE("price.not_positive", "price", "Product price must be greater than 0"),
+    PRICE_TOO_HIGH("price.too_high", "price", "Product price cannot exceed " + Prices.format(ProductValidator.MAX_PRICE_MINOR)),
+    CURRENCY_INVALID("currency.invalid", "currency", "Currency must be a three-letter ISO 4217 code");
+
+    private final String code;
+    private final String field;
+    private final String message;
+
+    ValidationError(String code, String field, String message) {
+        this.code = code;
+        this.field = field;
+        this.message = message;
+    }
+
+    public String getCode() { return code; }
+    public String getField() { return field; }
+    public String getMessage() { return message; }
+}
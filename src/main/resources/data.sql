@@ -1,7 +1,7 @@
 -- Sample Products
-INSERT INTO PRODUCT (name, description, price) VALUES 
-('Laptop', 'High-performance laptop with 16GB RAM', 999.99),
-('Smartphone', 'Latest model with 128GB storage', 699.99),
-('Headphones', 'Noise-cancelling wireless headphones', 199.99),
-('Smart Watch', 'Fitness tracker with heart rate monitor', 249.99),
-('Tablet', '10-inch tablet with 64GB storage', 399.99); 
\ No newline at end of file
+INSERT INTO PRODUCT (name, description, price_minor) VALUES 
+('Laptop', 'High-performance laptop with 16GB RAM', 99999),
+('Smartphone', 'Latest model with 128GB storage', 69999),
+('Headphones', 'Noise-cancelling wireless headphones', 19999),
+('Smart Watch', 'Fitness tracker with heart rate monitor', 24999),
+('Tablet', '10-inch tablet with 64GB storage', 39999); 
\ No newline at end of file
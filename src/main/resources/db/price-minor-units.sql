@@ -0,0 +1,14 @@
+-- Moves an existing PRODUCT table from price DOUBLE to exact minor units
+-- (price_minor BIGINT) plus a currency code, as in schema.sql. Run it once
+-- against databases created before the change; fresh databases get the new
+-- layout from schema.sql. Amounts are rounded to the nearest cent. Versions
+-- are bumped because the JSON of every product changes, so per-product ETags
+-- cached before the migration no longer match.
+ALTER TABLE PRODUCT ADD COLUMN price_minor BIGINT;
+ALTER TABLE PRODUCT ADD COLUMN currency VARCHAR(3) DEFAULT 'USD' NOT NULL;
+UPDATE PRODUCT SET price_minor = CAST(ROUND(COALESCE(price, 0) * 100) AS BIGINT), version = version + 1;
+ALTER TABLE PRODUCT ALTER COLUMN price_minor SET DEFAULT 0;
+ALTER TABLE PRODUCT ALTER COLUMN price_minor SET NOT NULL;
+DROP INDEX IF EXISTS IDX_PRODUCT_PRICE_ID;
+CREATE INDEX IDX_PRODUCT_PRICE_ID ON PRODUCT (price_minor, id);
+ALTER TABLE PRODUCT DROP COLUMN price;
@@ -1,7 +1,30 @@
 DROP TABLE IF EXISTS PRODUCT;
+DROP SEQUENCE IF EXISTS PRODUCT_SEQ;
+-- Ids are handed out in blocks of 50 (see Product.id); plain SQL inserts
+-- draw from the same sequence through the column default
+CREATE SEQUENCE PRODUCT_SEQ START WITH 1 INCREMENT BY 50;
 CREATE TABLE PRODUCT (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR PRODUCT_SEQ PRIMARY KEY,
     name VARCHAR(255),
     description VARCHAR(255),
-    price DOUBLE
-); 
\ No newline at end of file
+    -- Exact amount in minor units (cents), see Prices
+    price_minor BIGINT DEFAULT 0 NOT NULL,
+    currency VARCHAR(3) DEFAULT 'USD' NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+-- Keyset listings sorted by price or name, with id as the tie-breaker
+CREATE INDEX IDX_PRODUCT_PRICE_ID ON PRODUCT (price_minor, id);
+CREATE INDEX IDX_PRODUCT_NAME_ID ON PRODUCT (name, id);
+
+-- Responses to POST /products by Idempotency-Key, used when
+-- catalog.idempotency.store=jdbc. Unlike PRODUCT it is not dropped, so keys
+-- survive restarts against a persistent database; status 0 marks a key
+-- claimed by a request that has not finished
+CREATE TABLE IF NOT EXISTS IDEMPOTENCY_KEY (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    status INT NOT NULL,
+    body CLOB,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS IDX_IDEMPOTENCY_KEY_CREATED_AT ON IDEMPOTENCY_KEY (created_at);
@@ -0,0 +1,96 @@
+package com.example.ecommerce.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testRateLimitsPerClientAndEndpoint() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        AdmissionProperties.Limit export = new AdmissionProperties.Limit();
+        export.setPattern("/products/export");
+        export.setCapacity(1);
+        export.setRefillPerSecond(0.1);
+        properties.getEndpoints().put("export", export);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+
+        assertEquals(200, perform(filter, "/products/export", "10.0.0.1").getStatus());
+        MockHttpServletResponse limited = perform(filter, "/products/export", "10.0.0.1");
+        assertEquals(429, limited.getStatus());
+        assertEquals("10", limited.getHeader("Retry-After"));
+
+        // Other clients and other endpoints have their own buckets
+        assertEquals(200, perform(filter, "/products/export", "10.0.0.2").getStatus());
+        assertEquals(200, perform(filter, "/products/1", "10.0.0.1").getStatus());
+
+        assertEquals(1.0, count("export", "rate_limited"));
+        assertEquals(2.0, count("export", "admitted"));
+        assertEquals(1.0, count("default", "admitted"));
+    }
+
+    @Test
+    void testRejectsWhenTooManyRequestsAreInFlight() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrent(1);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, meterRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<MockHttpServletResponse> slow = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(request("/products", "10.0.0.1"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.get("admission.in_flight").gauge().value());
+
+        MockHttpServletResponse overloaded = perform(filter, "/products", "10.0.0.2");
+        assertEquals(503, overloaded.getStatus());
+        assertEquals("1", overloaded.getHeader("Retry-After"));
+
+        release.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS).getStatus());
+        assertEquals(0.0, meterRegistry.get("admission.in_flight").gauge().value());
+        assertEquals(200, perform(filter, "/products", "10.0.0.2").getStatus());
+        assertEquals(1.0, count("default", "overloaded"));
+    }
+
+    private double count(String endpoint, String result) {
+        return meterRegistry.get("admission.requests").tag("endpoint", endpoint).tag("result", result).counter().count();
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, String path, String client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, client), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(client);
+        return request;
+    }
+}
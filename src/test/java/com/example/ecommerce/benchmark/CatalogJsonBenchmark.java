@@ -0,0 +1,127 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.cache.CatalogSnapshot;
+import com.example.ecommerce.controller.CatalogJsonMessageConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CPU time and allocation per GET /products response body: the default
+ * MappingJackson2HttpMessageConverter over the product list against
+ * CatalogJsonMessageConverter concatenating cached per-product JSON. Both
+ * write into a discarding stream, so only the serialization is measured. Not
+ * part of the regular test run; use
+ * {@code mvn test -Dtest=CatalogJsonBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class CatalogJsonBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int WARM_UP = 2_000;
+    private static final int ITERATIONS = 5_000;
+    private static final Type PRODUCT_LIST = new ParameterizedTypeReference<List<Object>>() { }.getType();
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonConverter;
+
+    @Autowired
+    private CatalogJsonMessageConverter catalogJsonConverter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[] {"Product " + i, "Benchmark product " + i, 100L + i * 100L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO PRODUCT (name, description, price_minor) VALUES (?, ?, ?)", rows);
+        catalogSnapshot.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+    }
+
+    @Test
+    void cachedJsonBeatsJackson() throws Exception {
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.getSnapshot();
+        Body jackson = () -> jacksonConverter.write(snapshot.getProducts(), PRODUCT_LIST, MediaType.APPLICATION_JSON, new DiscardingMessage());
+        Body cached = () -> catalogJsonConverter.write(snapshot, MediaType.APPLICATION_JSON, new DiscardingMessage());
+
+        measure(jackson, WARM_UP);
+        measure(cached, WARM_UP);
+        Result jacksonResult = measure(jackson, ITERATIONS);
+        Result cachedResult = measure(cached, ITERATIONS);
+
+        System.out.printf("%-10s %12s %14s%n", "path", "CPU/response", "bytes/response");
+        System.out.println(jacksonResult.format("jackson"));
+        System.out.println(cachedResult.format("cached"));
+        System.out.printf("cached uses %.1fx less CPU and %.0fx less allocation%n",
+                jacksonResult.cpuNanos / cachedResult.cpuNanos,
+                jacksonResult.allocatedBytes / Math.max(1.0, cachedResult.allocatedBytes));
+        assertTrue(cachedResult.cpuNanos < jacksonResult.cpuNanos);
+        assertTrue(cachedResult.allocatedBytes < jacksonResult.allocatedBytes);
+    }
+
+    private static Result measure(Body body, int iterations) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long allocatedStart = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            body.write();
+        }
+        return new Result((threads.getCurrentThreadCpuTime() - cpuStart) / (double) iterations,
+                (threads.getCurrentThreadAllocatedBytes() - allocatedStart) / (double) iterations);
+    }
+
+    private interface Body {
+        void write() throws IOException;
+    }
+
+    private record Result(double cpuNanos, double allocatedBytes) {
+        String format(String path) {
+            return String.format("%-10s %10.1fus %14.0f", path, cpuNanos / 1e3, allocatedBytes);
+        }
+    }
+
+    private static final class DiscardingMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
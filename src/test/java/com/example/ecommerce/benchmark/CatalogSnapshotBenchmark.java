@@ -0,0 +1,105 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.cache.CatalogSnapshot;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * List throughput of the catalog snapshot against ProductRepository.findAll()
+ * with 64 concurrent readers. The repository is called directly: the service
+ * coalesces concurrent catalog loads, which would hide the cost of each query.
+ * Not part of the regular test run; use
+ * {@code mvn test -Dtest=CatalogSnapshotBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class CatalogSnapshotBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int READERS = 64;
+    private static final long RUN_MILLIS = 5_000;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[] {"Product " + i, "Benchmark product " + i, 100L + i * 100L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO PRODUCT (name, description, price_minor) VALUES (?, ?, ?)", rows);
+        catalogSnapshot.refresh();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+    }
+
+    @Test
+    void snapshotOutperformsFindAll() throws Exception {
+        // Warm-up pass for each path, then the measured pass
+        run(productRepository::findAll, 1_000);
+        run(catalogSnapshot::getProducts, 1_000);
+        double findAll = run(productRepository::findAll, RUN_MILLIS);
+        double snapshot = run(catalogSnapshot::getProducts, RUN_MILLIS);
+
+        System.out.printf("findAll():  %,14.0f lists/s%n", findAll);
+        System.out.printf("snapshot:   %,14.0f lists/s (%.0fx)%n", snapshot, snapshot / findAll);
+        assertTrue(snapshot > findAll);
+    }
+
+    private static double run(Supplier<List<Product>> list, long millis) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(READERS);
+        LongAdder completed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        for (int i = 0; i < READERS; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    if (list.get().size() != PRODUCTS) {
+                        throw new IllegalStateException("incomplete listing");
+                    }
+                    completed.increment();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + TimeUnit.MILLISECONDS.toNanos(millis);
+        start.countDown();
+        executor.shutdown();
+        executor.awaitTermination(millis + 60_000, TimeUnit.MILLISECONDS);
+        return completed.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.util.InputSanitizer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput and allocation of InputSanitizer against the chained
+ * replaceAll calls it replaced, on realistic descriptions (mostly clean, a
+ * few with a token) and on adversarial ones (dense '<', ':' and nested
+ * tokens). Not part of the regular test run; use
+ * {@code mvn test -Dtest=InputSanitizerBenchmark}.
+ */
+class InputSanitizerBenchmark {
+
+    private static final int INPUTS = 1_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    void singlePassBeatsReplaceAll() {
+        List<String> realistic = realisticInputs(new Random(42));
+        List<String> adversarial = adversarialInputs(new Random(7));
+        UnaryOperator<String> legacy = InputSanitizerBenchmark::legacySanitize;
+        UnaryOperator<String> sanitizer = InputSanitizer::sanitize;
+
+        System.out.printf("%-12s %-10s %10s %14s%n", "inputs", "path", "MB/s", "bytes/char");
+        for (List<String> inputs : List.of(realistic, adversarial)) {
+            String name = inputs == realistic ? "realistic" : "adversarial";
+            measure(legacy, inputs, WARM_UP_ROUNDS);
+            measure(sanitizer, inputs, WARM_UP_ROUNDS);
+            Result legacyResult = measure(legacy, inputs, ROUNDS);
+            Result sanitizerResult = measure(sanitizer, inputs, ROUNDS);
+            System.out.println(legacyResult.format(name, "replaceAll"));
+            System.out.println(sanitizerResult.format(name, "single"));
+            assertTrue(sanitizerResult.megabytesPerSecond > legacyResult.megabytesPerSecond);
+            assertTrue(sanitizerResult.bytesPerChar < legacyResult.bytesPerChar);
+        }
+    }
+
+    private static String legacySanitize(String input) {
+        return input.replaceAll("<script>", "")
+                .replaceAll("</script>", "")
+                .replaceAll("javascript:", "")
+                .trim();
+    }
+
+    // Product descriptions of 100 to 2000 characters; one in twenty carries a token
+    private static List<String> realisticInputs(Random random) {
+        String[] words = {"wireless", "ergonomic", "mouse", "with", "USB-C", "charging,", "2.4GHz", "receiver",
+                "and", "up", "to", "70", "hours", "battery", "life.", "Compatible", "with", "Windows", "macOS:", "<b>new</b>"};
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < INPUTS; i++) {
+            StringBuilder description = new StringBuilder();
+            int length = 100 + random.nextInt(1_900);
+            while (description.length() < length) {
+                description.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            if (i % 20 == 0) {
+                description.insert(random.nextInt(description.length()), "<script>");
+            }
+            inputs.add(description.toString());
+        }
+        return inputs;
+    }
+
+    private static List<String> adversarialInputs(Random random) {
+        String[] pieces = {"<scr<script>ipt>", "javas<script>cript:", "<<<<>>>>", "::::", "</script", "javascript",
+                "<script>", "</scr</script>ipt>"};
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < INPUTS; i++) {
+            StringBuilder input = new StringBuilder();
+            int length = 100 + random.nextInt(1_900);
+            while (input.length() < length) {
+                input.append(pieces[random.nextInt(pieces.length)]);
+            }
+            inputs.add(input.toString());
+        }
+        return inputs;
+    }
+
+    private static Result measure(UnaryOperator<String> sanitize, List<String> inputs, int rounds) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long chars = 0;
+        int sink = 0;
+        long allocatedStart = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String input : inputs) {
+                sink += sanitize.apply(input).length();
+                chars += input.length();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedStart;
+        assertTrue(sink >= 0);
+        return new Result(chars / (elapsed / 1e3), allocated / (double) chars);
+    }
+
+    private record Result(double megabytesPerSecond, double bytesPerChar) {
+        String format(String inputs, String path) {
+            return String.format("%-12s %-10s %10.1f %14.2f", inputs, path, megabytesPerSecond, bytesPerChar);
+        }
+    }
+}
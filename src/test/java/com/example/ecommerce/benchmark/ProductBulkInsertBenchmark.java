@@ -0,0 +1,96 @@
+package com.example.ecommerce.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Rows/sec of POST /products/bulk against one POST /products per row. Not part
+ * of the regular test run; use {@code mvn test -Dtest=ProductBulkInsertBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductBulkInsertBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+    }
+
+    @Test
+    void bulkInsertOutperformsSingleSaves() throws Exception {
+        // First round of each path is JIT warm-up and is not reported
+        double single = 0;
+        double bulk = 0;
+        for (int round = 0; round <= ROUNDS; round++) {
+            double singleRate = singleSaveRowsPerSecond();
+            cleanUp();
+            double bulkRate = bulkRowsPerSecond();
+            cleanUp();
+            if (round > 0) {
+                single += singleRate / ROUNDS;
+                bulk += bulkRate / ROUNDS;
+            }
+        }
+
+        System.out.printf("single save: %10.0f rows/s%n", single);
+        System.out.printf("bulk upsert: %10.0f rows/s (%.1fx)%n", bulk, bulk / single);
+        assertTrue(bulk > single, "bulk path should insert faster than one request per row");
+    }
+
+    private double singleSaveRowsPerSecond() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            mockMvc.perform(post("/products")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(productJson(i)))
+                    .andExpect(status().isOk());
+        }
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double bulkRowsPerSecond() throws Exception {
+        StringBuilder body = new StringBuilder(ROWS * 80).append('[');
+        for (int i = 0; i < ROWS; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(productJson(i));
+        }
+        body.append(']');
+
+        long start = System.nanoTime();
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(ROWS));
+        return ROWS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static String productJson(int i) {
+        return "{\"name\":\"Product " + i + "\",\"description\":\"Benchmark product " + i + "\",\"price\":" + (1 + i % 1000) + ".99}";
+    }
+}
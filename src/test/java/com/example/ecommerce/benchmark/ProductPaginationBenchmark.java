@@ -0,0 +1,111 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-page latency of keyset pagination from page 1 to page 10,000, compared
+ * with OFFSET paging over the same rows. Not part of the regular test run
+ * (the class name does not match the surefire includes); run it with
+ * {@code mvn test -Dtest=ProductPaginationBenchmark}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@ActiveProfiles("test")
+class ProductPaginationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 10_000;
+    private static final int[] SAMPLED_PAGES = {1, 10, 100, 1_000, 5_000, 10_000};
+    private static final int SAMPLES = 25;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE * PAGES; i++) {
+            rows.add(new Object[] {"Product " + i, "Benchmark product " + i, 100L + (i % 1000) * 100L});
+            if (rows.size() == 5_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO PRODUCT (name, description, price_minor) VALUES (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+    }
+
+    @Test
+    void perPageLatencyStaysFlat() {
+        long[] boundaries = pageBoundaries();
+
+        // Warm up the JIT and H2 page cache on both paths
+        for (int i = 0; i < 2_000; i++) {
+            productRepository.findByIdGreaterThanOrderByIdAsc(boundaries[i % PAGES], Limit.of(PAGE_SIZE));
+        }
+
+        System.out.printf("%8s %14s %14s%n", "page", "keyset (us)", "offset (us)");
+        double firstKeyset = 0;
+        double lastKeyset = 0;
+        for (int page : SAMPLED_PAGES) {
+            long afterId = boundaries[page - 1];
+            double keyset = medianMicros(() ->
+                    productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(PAGE_SIZE)));
+            double offset = medianMicros(() -> jdbcTemplate.queryForList(
+                    "SELECT id, name, description, price_minor FROM PRODUCT ORDER BY id LIMIT ? OFFSET ?",
+                    PAGE_SIZE, (page - 1) * PAGE_SIZE));
+            System.out.printf("%8d %14.1f %14.1f%n", page, keyset, offset);
+            if (page == 1) {
+                firstKeyset = keyset;
+            }
+            lastKeyset = keyset;
+        }
+
+        // Generous bound: page 10,000 must cost about the same as page 1
+        assertTrue(lastKeyset < Math.max(firstKeyset, 50.0) * 5,
+                "keyset page 10,000 took " + lastKeyset + "us vs " + firstKeyset + "us for page 1");
+    }
+
+    private long[] pageBoundaries() {
+        long[] boundaries = new long[PAGES];
+        long afterId = 0L;
+        for (int page = 0; page < PAGES; page++) {
+            boundaries[page] = afterId;
+            List<Product> items = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(PAGE_SIZE));
+            afterId = items.get(items.size() - 1).getId();
+        }
+        return boundaries;
+    }
+
+    private static double medianMicros(Runnable query) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2] / 1_000.0;
+    }
+}
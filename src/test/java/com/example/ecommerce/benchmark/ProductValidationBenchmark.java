@@ -0,0 +1,111 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.validation.ProductValidator;
+import com.example.ecommerce.validation.ValidationError;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time and allocation per product validated: the checks as they were
+ * written before ProductValidator (trim() per check, Pattern.compile per
+ * name) against ProductValidator. Half the inputs are valid and the rest
+ * fail on different rules. Not part of the regular test run; use
+ * {@code mvn test -Dtest=ProductValidationBenchmark}.
+ */
+class ProductValidationBenchmark {
+
+    private static final int WARM_UP = 2_000_000;
+    private static final int ITERATIONS = 10_000_000;
+
+    private final Product[] products = {
+            product("Wireless Mouse", 29.99),
+            product("Mechanical Keyboard-87_keys", 89.99),
+            product("   ", 10.0),
+            product("Laptop", 0.0),
+            product("Monitor <4K>", 399.0),
+            product("x".repeat(120), 15.0),
+            product("Desk Lamp", 1_500_000.0),
+            product("USB C Cable", 9.99)
+    };
+
+    @Test
+    void validatorBeatsLegacyChecks() {
+        ToIntFunction<Product> legacy = product -> legacyValidate(product) == null ? 1 : 0;
+        ToIntFunction<Product> validator = product -> validate(product) == null ? 1 : 0;
+        for (Product product : products) {
+            ValidationError error = validate(product);
+            assertEquals(legacyValidate(product), error == null ? null : error.getMessage());
+        }
+
+        measure(legacy, WARM_UP);
+        measure(validator, WARM_UP);
+        Result legacyResult = measure(legacy, ITERATIONS);
+        Result validatorResult = measure(validator, ITERATIONS);
+
+        System.out.printf("%-10s %10s %12s%n", "path", "ns/op", "bytes/op");
+        System.out.println(legacyResult.format("legacy"));
+        System.out.println(validatorResult.format("validator"));
+        assertTrue(validatorResult.nanos < legacyResult.nanos);
+        assertTrue(validatorResult.allocatedBytes < 1.0);
+    }
+
+    // Product rules plus the name character class, which the old code only
+    // checked in ValidationUtils
+    private static ValidationError validate(Product product) {
+        ValidationError error = ProductValidator.validate(product);
+        return error != null ? error : ProductValidator.validateName(product.getName());
+    }
+
+    private static String legacyValidate(Product product) {
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            return "Product name cannot be empty";
+        }
+        if (product.getPrice() <= 0.0) {
+            return "Product price must be greater than 0";
+        }
+        if (product.getName().length() > 100) {
+            return "Product name cannot exceed 100 characters";
+        }
+        if (product.getPrice() > 999999.99) {
+            return "Product price cannot exceed 999999.99";
+        }
+        if (!Pattern.compile("^[a-zA-Z0-9\\s\\-_]+$").matcher(product.getName()).matches()) {
+            return "Product name can only contain letters, digits, whitespace, '-' and '_'";
+        }
+        return null;
+    }
+
+    private Result measure(ToIntFunction<Product> check, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedStart = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            valid += check.applyAsInt(products[i & (products.length - 1)]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedStart;
+        // Three of the eight inputs are valid
+        assertEquals(iterations / 8 * 3, valid);
+        return new Result(elapsed / (double) iterations, allocated / (double) iterations);
+    }
+
+    private static Product product(String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        return product;
+    }
+
+    private record Result(double nanos, double allocatedBytes) {
+        String format(String path) {
+            return String.format("%-10s %10.1f %12.1f", path, nanos, allocatedBytes);
+        }
+    }
+}
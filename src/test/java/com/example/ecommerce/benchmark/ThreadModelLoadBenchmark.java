@@ -0,0 +1,136 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.App;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP load test of ProductController with 1,000 concurrent keep-alive
+ * connections, run once on Tomcat's platform-thread pool and once with the
+ * virtual-threads profile. Each connection pages through the catalog with
+ * random keyset cursors, so every request runs a JPA query. Prints throughput
+ * and latency percentiles for both modes. Not part of the regular test run;
+ * use {@code mvn test -Dtest=ThreadModelLoadBenchmark}.
+ */
+class ThreadModelLoadBenchmark {
+
+    private static final int PRODUCTS = 10_000;
+    private static final int CONNECTIONS = 1_000;
+    private static final long WARM_UP_MILLIS = 3_000;
+    private static final long RUN_MILLIS = 10_000;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = measure(false);
+        Result virtual = measure(true);
+
+        System.out.println("mode        requests/s        p50        p99      errors");
+        System.out.println(platform.format("platform"));
+        System.out.println(virtual.format("virtual"));
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+    }
+
+    private static Result measure(boolean virtualThreads) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(App.class)
+                .properties("spring.jpa.show-sql=false", "logging.level.com.example.ecommerce=INFO",
+                        // Measures the thread model, not the admission limits
+                        "catalog.admission.enabled=false");
+        builder.profiles(virtualThreads ? new String[] {"test", "virtual-threads"} : new String[] {"test"});
+        try (ConfigurableApplicationContext context = builder.run()) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            run(port, WARM_UP_MILLIS);
+            return run(port, RUN_MILLIS);
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM PRODUCT");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            rows.add(new Object[] {"Product " + i, "Benchmark product " + i, 100L + i * 100L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO PRODUCT (name, description, price_minor) VALUES (?, ?, ?)", rows);
+    }
+
+    private static Result run(int port, long millis) throws InterruptedException {
+        // One blocking client thread per connection; the JDK client keeps each
+        // connection alive between its requests
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        long[][] latencies = new long[CONNECTIONS][];
+        LongAdder errors = new LongAdder();
+        long begin = System.nanoTime();
+        long deadline = begin + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int c = 0; c < CONNECTIONS; c++) {
+            int connection = c;
+            clients.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    long after = ThreadLocalRandom.current().nextLong(PRODUCTS);
+                    HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/products?limit=20&after=" + after))
+                            .timeout(Duration.ofSeconds(60))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.increment();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                        continue;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies[connection] = Arrays.copyOf(samples, count);
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(millis + 120_000, TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long[] all = Arrays.stream(latencies).filter(s -> s != null).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all.length / seconds, percentile(all, 0.50), percentile(all, 0.99), errors.sum());
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private record Result(double throughput, long p50Nanos, long p99Nanos, long errors) {
+        String format(String mode) {
+            return String.format("%-8s %,13.0f %8.1fms %8.1fms %9d",
+                    mode, throughput, p50Nanos / 1e6, p99Nanos / 1e6, errors);
+        }
+    }
+}
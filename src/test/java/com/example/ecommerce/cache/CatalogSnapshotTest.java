@@ -0,0 +1,163 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPatch;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogSnapshotTest {
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testSnapshotFollowsWrites() {
+        Product laptop = save("Laptop", 1299.99);
+        Product mouse = save("Mouse", 29.99);
+        assertEquals(List.of("Laptop", "Mouse"), names(catalogSnapshot.getProducts()));
+
+        laptop.setName("Notebook");
+        productRepository.save(laptop);
+        ProductPatch patch = new ProductPatch();
+        patch.setPriceMinor(1999L);
+        productService.patchProduct(mouse.getId(), patch);
+
+        List<Product> products = catalogSnapshot.getProducts();
+        assertEquals(List.of("Notebook", "Mouse"), names(products));
+        assertEquals(19.99, products.get(1).getPrice(), 0.001);
+
+        productRepository.deleteById(laptop.getId());
+        assertEquals(List.of("Mouse"), names(catalogSnapshot.getProducts()));
+    }
+
+    @Test
+    void testETagNamesTheRepresentation() {
+        save("Laptop", 1299.99);
+
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.getSnapshot();
+        assertTrue(snapshot.getETag().startsWith("\"" + CatalogSnapshot.Snapshot.ETAG_FORMAT + "-1-"), snapshot.getETag());
+        assertTrue(snapshot.getGzipETag().endsWith("-gzip\""), snapshot.getGzipETag());
+    }
+
+    @Test
+    void testIgnoresEventsDeliveredOutOfOrder() {
+        Product laptop = save("Laptop", 1299.99);
+        Long id = laptop.getId();
+        String eTag = catalogSnapshot.getSnapshot().getETag();
+
+        catalogSnapshot.onProductChange(ProductChangeEvent.updated(version(laptop, "Ultrabook", 2L)));
+        catalogSnapshot.onProductChange(ProductChangeEvent.updated(version(laptop, "Notebook", 1L)));
+        assertEquals(List.of("Ultrabook"), names(catalogSnapshot.getProducts()));
+
+        // A delete overtaken by the update it raced with
+        catalogSnapshot.onProductChange(ProductChangeEvent.deleted(id));
+        catalogSnapshot.onProductChange(ProductChangeEvent.updated(version(laptop, "Revived", 3L)));
+        catalogSnapshot.onProductChange(ProductChangeEvent.created(version(laptop, "Revived", 0L)));
+        assertTrue(catalogSnapshot.getProducts().isEmpty());
+        assertNotEquals(eTag, catalogSnapshot.getSnapshot().getETag());
+
+        // Updates never insert a product the snapshot does not hold
+        Product unknown = version(laptop, "Unknown", 1L);
+        unknown.setId(id + 1_000_000);
+        catalogSnapshot.onProductChange(ProductChangeEvent.updated(unknown));
+        assertTrue(catalogSnapshot.getProducts().isEmpty());
+    }
+
+    @Test
+    void testCachedJsonMatchesJacksonAcrossWrites() throws Exception {
+        Product laptop = save("Laptop", 1299.99);
+        save("Mouse", 29.99);
+        assertEquals(objectMapper.writeValueAsString(catalogSnapshot.getProducts()), json(catalogSnapshot.getSnapshot()));
+
+        laptop.setName("Notebook");
+        productRepository.save(laptop);
+        save("Keyboard", 49.99);
+
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.getSnapshot();
+        assertTrue(json(snapshot).contains("\"name\":\"Notebook\""));
+        assertEquals(objectMapper.writeValueAsString(snapshot.getProducts()), json(snapshot));
+    }
+
+    @Test
+    void testSnapshotIsReadOnly() {
+        save("Laptop", 1299.99);
+
+        assertThrows(UnsupportedOperationException.class, () -> catalogSnapshot.getProducts().clear());
+    }
+
+    @Test
+    void testStaleSnapshotIsReloaded() {
+        CatalogSnapshot snapshot = new CatalogSnapshot(Duration.ZERO);
+        ReflectionTestUtils.setField(snapshot, "productService", productService);
+        snapshot.refresh();
+        save("Laptop", 1299.99);
+
+        // Bypasses JPA, so no change event: only a reload can pick it up
+        jdbcTemplate.update("INSERT INTO PRODUCT (name, description, price_minor) VALUES ('Imported', 'Via SQL', 500)");
+
+        assertEquals(List.of("Laptop", "Imported"), names(snapshot.getProducts()));
+    }
+
+    private Product save(String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Description");
+        product.setPrice(price);
+        return productRepository.save(product);
+    }
+
+    private static Product version(Product product, String name, Long version) {
+        Product copy = new Product();
+        copy.setId(product.getId());
+        copy.setName(name);
+        copy.setPriceMinor(product.getPriceMinor());
+        copy.setVersion(version);
+        return copy;
+    }
+
+    private static String json(CatalogSnapshot.Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeJson(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+}
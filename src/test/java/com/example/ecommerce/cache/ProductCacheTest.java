@@ -0,0 +1,101 @@
+package com.example.ecommerce.cache;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testReadThroughCountsHitsAndMisses() {
+        ProductCache cache = new ProductCache(100, Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            Optional<Product> product = cache.get(1L, id -> {
+                loads.incrementAndGet();
+                return Optional.of(product(id, "Laptop"));
+            });
+            assertEquals("Laptop", product.orElseThrow().getName());
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testCallersCannotAlterCachedState() {
+        ProductCache cache = new ProductCache(100, Duration.ofMinutes(1), meterRegistry);
+        Product loaded = product(1L, "Laptop");
+
+        cache.get(1L, id -> Optional.of(loaded)).orElseThrow().setName("Changed by caller");
+        loaded.setName("Changed by loader");
+
+        assertEquals("Laptop", cache.get(1L, id -> Optional.empty()).orElseThrow().getName());
+    }
+
+    @Test
+    void testChangeEventEvictsEntry() {
+        ProductCache cache = new ProductCache(100, Duration.ofMinutes(1), meterRegistry);
+        cache.get(1L, id -> Optional.empty());
+
+        cache.onProductChange(ProductChangeEvent.created(product(1L, "Laptop")));
+
+        assertEquals("Laptop", cache.get(1L, id -> Optional.of(product(id, "Laptop"))).orElseThrow().getName());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        ProductCache cache = new ProductCache(100, Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Optional<Product>>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> cache.get(7L, id -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(product(id, "Hot product"));
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<Optional<Product>> result : results) {
+                assertEquals("Hot product", result.get(5, TimeUnit.SECONDS).orElseThrow().getName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(10.0);
+        return product;
+    }
+}
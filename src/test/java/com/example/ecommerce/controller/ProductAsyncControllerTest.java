@@ -0,0 +1,97 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductAsyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testGetProductById() throws Exception {
+        Product product = createTestProduct("Laptop", 1299.99);
+
+        MvcResult result = mockMvc.perform(get("/products/async/" + product.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.name").value("Laptop"));
+    }
+
+    @Test
+    void testGetProductsByIds() throws Exception {
+        Product laptop = createTestProduct("Laptop", 1299.99);
+
+        MvcResult result = mockMvc.perform(get("/products/async").param("ids", "999999," + laptop.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+    }
+
+    @Test
+    void testGetProductPage() throws Exception {
+        createTestProduct("Laptop", 1299.99);
+        createTestProduct("Mouse", 29.99);
+
+        MvcResult result = mockMvc.perform(get("/products/async").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    void testGetProductPage_InvalidParameters() throws Exception {
+        mockMvc.perform(get("/products/async").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        // Errors raised on the query pool come back through the async dispatch
+        MvcResult result = mockMvc.perform(get("/products/async").param("sort", "description"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Product createTestProduct(String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " description");
+        product.setPrice(price);
+        return productRepository.save(product);
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.cache.CatalogSnapshot;
+import com.example.ecommerce.idempotency.IdempotencyStore;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.repository.ProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,10 +12,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +41,12 @@ class ProductControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
@@ -61,6 +75,198 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[1].price").value(29.99));
     }
 
+    @Test
+    void testGetProductPage_WalksWholeCatalog() throws Exception {
+        Product first = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        createTestProduct("Mouse", "Wireless mouse", 29.99);
+        Product last = createTestProduct("Keyboard", "Mechanical keyboard", 89.99);
+
+        String body = mockMvc.perform(get("/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(first.getId()))
+                .andExpect(jsonPath("$.items[1].name").value("Mouse"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/products").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(last.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetProductPage_AcceptsPlainIdAsCursor() throws Exception {
+        Product first = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        Product second = createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        mockMvc.perform(get("/products").param("limit", "10").param("after", first.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(second.getId()));
+    }
+
+    @Test
+    void testGetProductPage_InvalidArguments() throws Exception {
+        mockMvc.perform(get("/products").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("limit", "501"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("limit", "10").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetProductPage_PriceRangeSortedByPrice() throws Exception {
+        createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        Product mouse = createTestProduct("Mouse", "Wireless mouse", 29.99);
+        Product cable = createTestProduct("Cable", "USB-C cable", 9.99);
+        Product keyboard = createTestProduct("Keyboard", "Mechanical keyboard", 89.99);
+        Product hub = createTestProduct("Hub", "USB hub", 29.99);
+        createTestProduct("Sticker", "Logo sticker", 0.99);
+
+        String body = mockMvc.perform(get("/products")
+                .param("minPrice", "5").param("maxPrice", "100")
+                .param("sort", "price,asc").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(cable.getId()))
+                .andExpect(jsonPath("$.items[1].id").value(mouse.getId()))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        // Equal prices continue by id
+        mockMvc.perform(get("/products")
+                .param("minPrice", "5").param("maxPrice", "100")
+                .param("sort", "price,asc").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(hub.getId()))
+                .andExpect(jsonPath("$.items[1].id").value(keyboard.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void testGetProductPage_SortedByName() throws Exception {
+        createTestProduct("Mouse", "Wireless mouse", 29.99);
+        createTestProduct("Cable", "USB-C cable", 9.99);
+        createTestProduct("Keyboard", "Mechanical keyboard", 89.99);
+
+        String body = mockMvc.perform(get("/products").param("sort", "name").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Cable"))
+                .andExpect(jsonPath("$.items[1].name").value("Keyboard"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/products").param("sort", "name").param("limit", "2").param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Mouse"));
+
+        // A cursor is only valid for the order it was issued for
+        mockMvc.perform(get("/products").param("sort", "price").param("after", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetProductPage_InvalidListingParameters() throws Exception {
+        mockMvc.perform(get("/products").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("sort", "price,desc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("minPrice", "10").param("maxPrice", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/products").param("maxPrice", "NaN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetProductPage_HugePriceBoundsAreClamped() throws Exception {
+        createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        mockMvc.perform(get("/products").param("minPrice", "-1e300").param("maxPrice", "1e300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void testSearchProducts() throws Exception {
+        createTestProduct("Headphones", "Noise-cancelling wireless headphones", 199.99);
+        Product mouse = createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        mockMvc.perform(get("/products/search").param("q", "wireless mouse"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(mouse.getId()));
+
+        mockMvc.perform(get("/products/search").param("q", "wireless"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Headphones"));
+
+        mockMvc.perform(get("/products/search").param("q", "keyboard"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void testSuggestProductNames() throws Exception {
+        createTestProduct("Smartphone", "Latest model", 699.99);
+        createTestProduct("Smart Watch", "Fitness tracker", 249.99);
+        createTestProduct("Tablet", "10-inch tablet", 399.99);
+
+        mockMvc.perform(get("/products/suggest").param("prefix", "sm").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"Smart Watch\", \"Smartphone\"]", true));
+
+        mockMvc.perform(get("/products/suggest").param("prefix", "sm").param("limit", "51"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportProducts_Ndjson() throws Exception {
+        Product first = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        Product second = createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        MvcResult result = mockMvc.perform(get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(first.getId(), objectMapper.readTree(lines[0]).get("id").asLong());
+        assertEquals("Mouse", objectMapper.readTree(lines[1]).get("name").asText());
+        assertEquals(second.getId(), objectMapper.readTree(lines[1]).get("id").asLong());
+    }
+
+    @Test
+    void testExportProducts_Csv() throws Exception {
+        Product product = createTestProduct("Laptop", "Fast, light \"pro\" laptop", 1299.99);
+
+        MvcResult result = mockMvc.perform(get("/products/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,name,description,price,currency\n"
+                        + product.getId() + ",Laptop,\"Fast, light \"\"pro\"\" laptop\",1299.99,USD\n"));
+    }
+
+    @Test
+    void testExportProducts_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetProductById_ExistingProduct() throws Exception {
         Product product = createTestProduct("Laptop", "High-performance laptop", 1299.99);
@@ -74,6 +280,24 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.price").value(1299.99));
     }
 
+    @Test
+    void testGetProductById_ReflectsWritesAfterCaching() throws Exception {
+        Product product = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        mockMvc.perform(get("/products/" + product.getId()))
+                .andExpect(jsonPath("$.price").value(1299.99));
+
+        mockMvc.perform(patch("/products/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 999.0}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/products/" + product.getId()))
+                .andExpect(jsonPath("$.price").value(999.0));
+
+        productRepository.deleteById(product.getId());
+        mockMvc.perform(get("/products/" + product.getId()))
+                .andExpect(content().string("null"));
+    }
+
     @Test
     void testGetProductById_NonExistingProduct() throws Exception {
         mockMvc.perform(get("/products/999"))
@@ -103,6 +327,211 @@ class ProductControllerTest {
         assertEquals(1, productRepository.count());
     }
 
+    @Test
+    void testCreateProduct_PriceIsStoredExactly() throws Exception {
+        mockMvc.perform(post("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Cable\", \"price\": 19.99, \"currency\": \"EUR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(19.99))
+                .andExpect(jsonPath("$.priceMinor").value(1999))
+                .andExpect(jsonPath("$.currency").value("EUR"));
+
+        Product saved = productRepository.findAll().get(0);
+        assertEquals(1999, saved.getPriceMinor());
+        assertEquals("EUR", saved.getCurrency());
+
+        mockMvc.perform(post("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Cable\", \"price\": 19.99, \"currency\": \"euro\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("currency.invalid"));
+    }
+
+    @Test
+    void testCreateProduct_ClientSuppliedIdIsRejected() throws Exception {
+        Product existing = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        mockMvc.perform(post("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\": " + existing.getId() + ", \"name\": \"Copy\", \"price\": 10.0}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(1, productRepository.count());
+
+        // A version on its own is ignored: the new product starts at 0
+        mockMvc.perform(post("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Mouse\", \"price\": 10.0, \"version\": 7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void testCreateProduct_InvalidProductIsProblemJson() throws Exception {
+        Product newProduct = new Product();
+        newProduct.setName("New Product");
+        newProduct.setPrice(1_000_000.0);
+
+        mockMvc.perform(post("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newProduct)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.code").value("price.too_high"))
+                .andExpect(jsonPath("$.field").value("price"))
+                .andExpect(jsonPath("$.detail").value("Product price cannot exceed 999999.99"));
+
+        newProduct.setName(" ");
+        mockMvc.perform(put("/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newProduct)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("name.empty"));
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void testCreateProduct_IdempotencyKeyReplays() throws Exception {
+        String key = UUID.randomUUID().toString();
+        Product newProduct = new Product();
+        newProduct.setName("New Product");
+        newProduct.setDescription("New Description");
+        newProduct.setPrice(99.99);
+        String productJson = objectMapper.writeValueAsString(newProduct);
+
+        String first = mockMvc.perform(post("/products")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(productJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andExpect(jsonPath("$.name").value("New Product"))
+                .andReturn().getResponse().getContentAsString();
+        // A retry gets the same product back without creating another
+        mockMvc.perform(post("/products")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(productJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first, true));
+        assertEquals(1, productRepository.count());
+
+        newProduct.setPrice(1.0);
+        mockMvc.perform(post("/products")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newProduct)))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/products")
+                .header("Idempotency-Key", " ")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(productJson))
+                .andExpect(status().isBadRequest());
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void testCreateProduct_IdempotencyKeyInProgressElsewhere() throws Exception {
+        String key = UUID.randomUUID().toString();
+        // As if another instance had claimed the key and not finished
+        assertTrue(idempotencyStore.claim(key));
+        Product newProduct = new Product();
+        newProduct.setName("New Product");
+        newProduct.setPrice(99.99);
+
+        mockMvc.perform(post("/products")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newProduct)))
+                .andExpect(status().isConflict());
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void testBulkUpsertProducts_ReportsPerItemResults() throws Exception {
+        Product existing = createTestProduct("Old Name", "Old Description", 50.0);
+
+        String body = "["
+                + "{\"name\":\"Keyboard\",\"description\":\"Mechanical\",\"price\":89.99},"
+                + "{\"name\":\"\",\"description\":\"No name\",\"price\":10.0},"
+                + "{\"id\":" + existing.getId() + ",\"name\":\"New Name\",\"description\":\"New Description\",\"price\":75.0},"
+                + "{\"id\":999999,\"name\":\"Ghost\",\"description\":\"Missing\",\"price\":1.0},"
+                + "{\"name\":\"Monitor\",\"description\":\"27 inch\",\"price\":299.99}"
+                + "]";
+
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].id").isNumber())
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[1].error").value("Product name cannot be empty"))
+                .andExpect(jsonPath("$.results[2].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[2].id").value(existing.getId()))
+                .andExpect(jsonPath("$.results[3].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results[4].index").value(4))
+                .andExpect(jsonPath("$.results[4].status").value("CREATED"));
+
+        assertEquals(3, productRepository.count());
+        assertEquals("New Name", productRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testBulkUpsertProducts_ChecksSuppliedVersions() throws Exception {
+        Product existing = createTestProduct("Old Name", "Old Description", 50.0);
+        Long version = existing.getVersion();
+
+        String body = "["
+                + "{\"name\":\"Keyboard\",\"price\":89.99,\"version\":41},"
+                + "{\"id\":" + existing.getId() + ",\"name\":\"Stale\",\"price\":75.0,\"version\":" + (version + 5) + "},"
+                + "{\"id\":" + existing.getId() + ",\"name\":\"Current\",\"price\":75.0,\"version\":" + version + "}"
+                + "]";
+
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[2].status").value("UPDATED"));
+
+        // Inserts start at version 0 like POST /products
+        assertEquals(0L, productRepository.findAll().stream()
+                .filter(product -> product.getName().equals("Keyboard"))
+                .findFirst().orElseThrow().getVersion());
+        assertEquals("Current", productRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testBulkUpsertProducts_InsertsMoreThanOneBatch() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"name\":\"Product ").append(i).append("\",\"description\":\"Bulk\",\"price\":1.5}");
+        }
+        body.append(']');
+
+        mockMvc.perform(post("/products/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(120))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        assertEquals(120, productRepository.count());
+    }
+
     // Test removed - validation now properly rejects null/empty names and zero/negative prices
     // This is the expected behavior with the new validation logic
 
@@ -132,8 +561,58 @@ class ProductControllerTest {
         assertEquals("Updated Name", updatedProduct.get().getName());
     }
 
-    // Test removed - application correctly throws NoSuchElementException for non-existing products
-    // This is the expected behavior when orElseThrow() is called on an empty Optional
+    @Test
+    void testUpdateProduct_NonExistingProduct() throws Exception {
+        Product updateData = new Product();
+        updateData.setName("Updated Name");
+        updateData.setDescription("Updated Description");
+        updateData.setPrice(100.0);
+
+        mockMvc.perform(put("/products/999999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateData)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchProduct_UpdatesOnlyGivenFields() throws Exception {
+        Product existingProduct = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        mockMvc.perform(patch("/products/" + existingProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 1099.5}"))
+                .andExpect(status().isNoContent());
+
+        Product patched = productRepository.findById(existingProduct.getId()).orElseThrow();
+        assertEquals("Laptop", patched.getName());
+        assertEquals("High-performance laptop", patched.getDescription());
+        assertEquals(1099.5, patched.getPrice(), 0.001);
+    }
+
+    @Test
+    void testPatchProduct_NonExistingProduct() throws Exception {
+        mockMvc.perform(patch("/products/999999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPatchProduct_InvalidFields() throws Exception {
+        Product existingProduct = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        mockMvc.perform(patch("/products/" + existingProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": -1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("price.not_positive"));
+        mockMvc.perform(patch("/products/" + existingProduct.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"  \"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1299.99, productRepository.findById(existingProduct.getId()).orElseThrow().getPrice(), 0.001);
+    }
 
     @Test
     void testDeleteProduct_ExistingProduct() throws Exception {
@@ -153,6 +632,212 @@ class ProductControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testGetProductsByIds_PreservesOrderAndReportsMissing() throws Exception {
+        Product laptop = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        Product mouse = createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        mockMvc.perform(get("/products").param("ids", mouse.getId() + ",999999," + laptop.getId() + "," + mouse.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Mouse"))
+                .andExpect(jsonPath("$.items[1].name").value("Laptop"))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+    }
+
+    @Test
+    void testGetProductsByIds_InvalidIds() throws Exception {
+        mockMvc.perform(get("/products").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest());
+
+        StringBuilder tooMany = new StringBuilder("1");
+        for (int i = 2; i <= ProductController.MAX_BATCH_IDS + 1; i++) {
+            tooMany.append(',').append(i);
+        }
+        mockMvc.perform(get("/products").param("ids", tooMany.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetProductById_ConditionalGet() throws Exception {
+        Product product = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        String eTag = mockMvc.perform(get("/products/" + product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products/" + product.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/products/" + product.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"price\": 1099.5}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        mockMvc.perform(get("/products/" + product.getId()).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.price").value(1099.5));
+    }
+
+    @Test
+    void testGetAllProducts_ConditionalGet() throws Exception {
+        createTestProduct("Laptop", "High-performance laptop", 1299.99);
+
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testGetAllProducts_Gzip() throws Exception {
+        createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        createTestProduct("Mouse", "Wireless mouse", 29.99);
+
+        MvcResult plain = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/products").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+            assertEquals(plain.getResponse().getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        String gzipETag = gzip.getResponse().getHeader("ETag");
+        assertNotEquals(plain.getResponse().getHeader("ETag"), gzipETag);
+        mockMvc.perform(get("/products").header("Accept-Encoding", "gzip").header("If-None-Match", gzipETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testGetAllProducts_GzipRevalidationDoesNotCompress() throws Exception {
+        createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        CatalogSnapshot.Snapshot snapshot = catalogSnapshot.getSnapshot();
+
+        mockMvc.perform(get("/products").header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", snapshot.getGzipETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", snapshot.getGzipETag()))
+                .andExpect(header().string("Vary", "Accept-Encoding"));
+
+        assertNull(ReflectionTestUtils.getField(snapshot, "gzipJson"));
+    }
+
+    @Test
+    void testChangeFeed_StreamsAndResumes() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/products/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Product laptop = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        // An event is written in parts, so wait for its data rather than its name
+        String events = awaitContent(stream, "\"name\":\"Laptop\"");
+        assertTrue(events.contains("event:created"));
+        String lastEventId = events.substring(events.indexOf("id:") + 3, events.indexOf('\n', events.indexOf("id:")));
+
+        // Changes made while the client was away are replayed, and only those
+        productRepository.deleteById(laptop.getId());
+        createTestProduct("Mouse", "Wireless mouse", 29.99);
+        MvcResult resumed = mockMvc.perform(get("/products/changes").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String replayed = awaitContent(resumed, "\"name\":\"Mouse\"");
+        assertFalse(replayed.contains("Laptop\""));
+        assertTrue(replayed.indexOf("event:deleted") < replayed.indexOf("event:created"));
+    }
+
+    @Test
+    void testChangeFeed_UnknownLastEventIdResets() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/products/changes").header("Last-Event-ID", "old-epoch-42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertTrue(awaitContent(stream, "event:reset").contains("id:"));
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(ProductController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ProductController.acceptsGzip("*"));
+        assertFalse(ProductController.acceptsGzip(null));
+        assertFalse(ProductController.acceptsGzip("identity"));
+        assertFalse(ProductController.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductController.acceptsGzip("*, gzip;q=0.000"));
+    }
+
+    @Test
+    void testUpdateProduct_IfMatch() throws Exception {
+        Product product = createTestProduct("Laptop", "High-performance laptop", 1299.99);
+        Product updateData = new Product();
+        updateData.setName("Updated Name");
+        updateData.setDescription("Updated Description");
+        updateData.setPrice(100.0);
+        String updateJson = objectMapper.writeValueAsString(updateData);
+
+        mockMvc.perform(put("/products/" + product.getId())
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        // A second writer still holding the old ETag loses
+        mockMvc.perform(put("/products/" + product.getId())
+                .header("If-Match", "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(product)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/products/" + product.getId())
+                .header("If-Match", "W/\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(put("/products/999999")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateJson))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("Updated Name", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testDeleteProduct_IfMatch() throws Exception {
+        Product product = createTestProduct("To Delete", "Will be deleted", 50.0);
+
+        mockMvc.perform(delete("/products/" + product.getId()).header("If-Match", "\"7\""))
+                .andExpect(status().isPreconditionFailed());
+        assertTrue(productRepository.existsById(product.getId()));
+
+        mockMvc.perform(delete("/products/" + product.getId()).header("If-Match", "\"0\""))
+                .andExpect(status().isOk());
+        assertFalse(productRepository.existsById(product.getId()));
+
+        mockMvc.perform(delete("/products/" + product.getId()).header("If-Match", "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     // Test removed - validation now properly rejects zero prices
     // This is the expected behavior with the new validation logic
 
@@ -210,6 +895,18 @@ class ProductControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    // Server-sent events arrive on another thread; waits for them to show up
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
+
     private Product createTestProduct(String name, String description, double price) {
         Product product = new Product();
         product.setName(name);
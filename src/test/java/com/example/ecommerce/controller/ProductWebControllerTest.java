@@ -9,9 +9,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.NoSuchElementException;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -40,6 +43,66 @@ public class ProductWebControllerTest {
                 .andExpect(model().attributeExists("products"));
     }
 
+    @Test
+    void testListProducts_FirstPageAndCardFragments() throws Exception {
+        for (int i = 0; i < ProductWebController.PAGE_SIZE + 6; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(10.0 + i);
+            productRepository.save(product);
+        }
+
+        MvcResult page = mockMvc.perform(get("/web/products"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("products", hasSize(ProductWebController.PAGE_SIZE)))
+                .andExpect(model().attributeExists("nextCursor"))
+                .andReturn();
+        String nextCursor = (String) page.getModelAndView().getModel().get("nextCursor");
+        assertTrue(page.getResponse().getContentAsString().contains("data-next="));
+
+        String cards = mockMvc.perform(get("/web/products/cards").param("after", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("products", hasSize(6)))
+                .andExpect(model().attribute("nextCursor", nullValue()))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(cards.contains("Product " + (ProductWebController.PAGE_SIZE + 5)));
+        assertFalse(cards.contains("<html"));
+        assertFalse(cards.contains("data-next="));
+
+        mockMvc.perform(get("/web/products/cards").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/web/products").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testListAllProducts_StreamsEveryCard() throws Exception {
+        int count = ProductPageStreamer.BATCH_SIZE + 5;
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setDescription("Description <" + i + ">");
+            product.setPrice(10.0 + i);
+            productRepository.save(product);
+        }
+
+        MvcResult result = mockMvc.perform(get("/web/products/all"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String html = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/html;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(count, html.split("class=\"card-title\"", -1).length - 1);
+        assertTrue(html.indexOf(">Product 0<") < html.indexOf(">Product " + (count - 1) + "<"));
+        assertTrue(html.contains("Description &lt;7&gt;"));
+        assertTrue(html.contains("E-Commerce App"));
+        assertTrue(html.trim().endsWith("</html>"));
+        assertFalse(html.contains("product-cards-->"));
+    }
+
     @Test
     void testCreateProduct() throws Exception {
         mockMvc.perform(post("/web/products")
@@ -50,6 +113,51 @@ public class ProductWebControllerTest {
                 .andExpect(redirectedUrl("/web/products"));
     }
 
+    @Test
+    void testCreateProduct_ParsesPriceExactly() throws Exception {
+        mockMvc.perform(post("/web/products")
+                .param("name", "Test Product")
+                .param("price", "1099.95")
+                .param("priceMinor", "1"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("successMessage", "Product created successfully!"));
+        assertEquals(109995L, productRepository.findAll().get(0).getPriceMinor());
+
+        // A third decimal used to be rounded away; it is refused like in JSON
+        mockMvc.perform(post("/web/products")
+                .param("name", "Test Product")
+                .param("price", "1.005"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorCode", "price.invalid"));
+        assertEquals(1, productRepository.count());
+    }
+
+    @Test
+    void testCreateProduct_IgnoresPostedId() throws Exception {
+        mockMvc.perform(post("/web/products")
+                .param("id", "424242")
+                .param("version", "3")
+                .param("name", "Test Product")
+                .param("price", "99.99"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("successMessage", "Product created successfully!"));
+        assertEquals(1, productRepository.count());
+        assertNotEquals(424242L, productRepository.findAll().get(0).getId());
+    }
+
+    @Test
+    void testCreateProduct_InvalidProductFlashesErrorCode() throws Exception {
+        mockMvc.perform(post("/web/products")
+                .param("name", " ")
+                .param("description", "Test Description")
+                .param("price", "99.99"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("errorMessage", "Product name cannot be empty"))
+                .andExpect(flash().attribute("errorCode", "name.empty"))
+                .andExpect(flash().attribute("errorField", "name"));
+        assertEquals(0, productRepository.count());
+    }
+
     @Test
     void testEditProduct() throws Exception {
         // Create a test product first
@@ -62,7 +170,8 @@ public class ProductWebControllerTest {
         mockMvc.perform(get("/web/products/edit/" + savedProduct.getId()))
                 .andExpect(status().isOk())
                 .andExpect(view().name("edit-product"))
-                .andExpect(model().attributeExists("product"));
+                .andExpect(model().attributeExists("product"))
+                .andExpect(model().attribute("price", "99.99"));
     }
 
     // Test removed - application correctly throws NoSuchElementException for non-existing products
@@ -84,10 +193,22 @@ public class ProductWebControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/web/products"))
                 .andExpect(flash().attributeExists("successMessage"));
+
+        Product updatedProduct = productRepository.findById(savedProduct.getId()).orElseThrow();
+        assertEquals("Updated Name", updatedProduct.getName());
+        assertEquals(100.0, updatedProduct.getPrice(), 0.001);
     }
 
-    // Test removed - application correctly throws NoSuchElementException for non-existing products
-    // This is the expected behavior when orElseThrow() is called on an empty Optional
+    @Test
+    void testUpdateProduct_NonExistingProduct() throws Exception {
+        mockMvc.perform(post("/web/products/update/999999")
+                .param("name", "Updated Name")
+                .param("description", "Updated Description")
+                .param("price", "100.0"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/web/products"))
+                .andExpect(flash().attribute("errorMessage", "Product not found"));
+    }
 
     @Test
     void testDeleteProduct() throws Exception {
@@ -0,0 +1,44 @@
+package com.example.ecommerce.event;
+
+import com.example.ecommerce.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTombstonesTest {
+
+    @Test
+    void testTombstonesExpireAfterTtl() {
+        AtomicLong now = new AtomicLong();
+        ProductTombstones tombstones = new ProductTombstones(Duration.ofNanos(100), now::get);
+
+        tombstones.add(1L);
+        now.set(50);
+        tombstones.add(2L);
+        assertTrue(tombstones.contains(1L));
+        assertFalse(tombstones.contains(3L));
+
+        now.set(100);
+        assertFalse(tombstones.contains(1L));
+        assertTrue(tombstones.contains(2L));
+
+        now.set(150);
+        assertEquals(0, tombstones.size());
+    }
+
+    @Test
+    void testEventVersionOrdering() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setVersion(2L);
+        ProductChangeEvent event = ProductChangeEvent.updated(product);
+
+        assertTrue(event.isNewerThan(1L));
+        assertFalse(event.isNewerThan(2L));
+        assertFalse(event.isNewerThan(3L));
+        assertTrue(event.isNewerThan(null));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ecommerce.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentRequestsTest {
+
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(100, Duration.ofMinutes(1));
+    private final IdempotentRequests requests = new IdempotentRequests(store, new SimpleMeterRegistry());
+
+    @Test
+    void testRunsOnceAndReplays() {
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotentRequests.Outcome first = requests.execute("k", () -> response(runs.incrementAndGet()));
+        IdempotentRequests.Outcome retry = requests.execute("k", () -> response(runs.incrementAndGet()));
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals("1", retry.response().body());
+        assertEquals(1, runs.get());
+        assertEquals("2", requests.execute("other", () -> response(runs.incrementAndGet())).response().body());
+    }
+
+    @Test
+    void testConcurrentDuplicatesWaitForTheFirst() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotentRequests.Outcome> first = CompletableFuture.supplyAsync(() ->
+                requests.execute("k", () -> {
+                    running.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response(runs.incrementAndGet());
+                }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<IdempotentRequests.Outcome>> duplicates = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            duplicates.add(CompletableFuture.supplyAsync(() -> requests.execute("k", () -> response(runs.incrementAndGet()))));
+        }
+        release.countDown();
+
+        assertFalse(first.get(10, TimeUnit.SECONDS).replayed());
+        for (CompletableFuture<IdempotentRequests.Outcome> duplicate : duplicates) {
+            IdempotentRequests.Outcome outcome = duplicate.get(10, TimeUnit.SECONDS);
+            assertTrue(outcome.replayed());
+            assertEquals("1", outcome.response().body());
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void testFailureIsNotStored() {
+        assertThrows(IllegalArgumentException.class, () -> requests.execute("k", () -> {
+            throw new IllegalArgumentException("invalid");
+        }));
+
+        IdempotentRequests.Outcome retry = requests.execute("k", () -> response(1));
+        assertFalse(retry.replayed());
+    }
+
+    @Test
+    void testKeyClaimedElsewhereIsRefused() {
+        assertTrue(store.claim("k"));
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> requests.execute("k", () -> response(1)));
+
+        store.save("k", response(1));
+        assertTrue(requests.execute("k", () -> response(2)).replayed());
+    }
+
+    private static StoredResponse response(int body) {
+        return new StoredResponse("fingerprint", 200, Integer.toString(body));
+    }
+}
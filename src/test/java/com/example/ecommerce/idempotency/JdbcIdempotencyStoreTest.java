@@ -0,0 +1,100 @@
+package com.example.ecommerce.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"catalog.idempotency.store=jdbc", "catalog.idempotency.ttl=1h"})
+@ActiveProfiles("test")
+class JdbcIdempotencyStoreTest {
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM IDEMPOTENCY_KEY");
+    }
+
+    @Test
+    void testSavesAndFinds() {
+        assertInstanceOf(JdbcIdempotencyStore.class, store);
+        assertNull(store.find("k"));
+
+        store.save("k", new StoredResponse("abc", 200, "{\"id\":1}"));
+
+        assertEquals(new StoredResponse("abc", 200, "{\"id\":1}"), store.find("k"));
+    }
+
+    @Test
+    void testExpiredEntryIsIgnoredAndReplaced() {
+        store.save("k", new StoredResponse("old", 200, "{}"));
+        jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET created_at = ?",
+                Timestamp.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        assertNull(store.find("k"));
+
+        store.save("k", new StoredResponse("new", 200, "{}"));
+        assertEquals("new", store.find("k").fingerprint());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM IDEMPOTENCY_KEY", Integer.class));
+    }
+
+    @Test
+    void testClaimIsExclusiveUntilReleased() {
+        assertTrue(store.claim("k"));
+        assertFalse(store.claim("k"));
+        assertNull(store.find("k"));
+
+        store.release("k");
+        assertTrue(store.claim("k"));
+        store.save("k", new StoredResponse("abc", 200, "{}"));
+        assertFalse(store.claim("k"));
+        store.release("k");
+        assertEquals("abc", store.find("k").fingerprint());
+    }
+
+    @Test
+    void testAbandonedClaimIsTakenOver() {
+        assertTrue(store.claim("k"));
+        jdbcTemplate.update("UPDATE IDEMPOTENCY_KEY SET created_at = ?",
+                Timestamp.from(Instant.now().minus(JdbcIdempotencyStore.CLAIM_TIMEOUT).minusSeconds(1)));
+
+        assertTrue(store.claim("k"));
+        assertFalse(store.claim("k"));
+    }
+
+    @Test
+    void testInstancesSharingTheStoreRunARequestOnce() {
+        // Each instance has its own IdempotentRequests; only the table is shared
+        IdempotentRequests first = new IdempotentRequests(store, new SimpleMeterRegistry());
+        IdempotentRequests second = new IdempotentRequests(store, new SimpleMeterRegistry());
+        AtomicInteger runs = new AtomicInteger();
+
+        IdempotentRequests.Outcome outcome = first.execute("k", () -> {
+            runs.incrementAndGet();
+            // The other instance gets the same key while this one is running
+            assertThrows(IdempotencyKeyInUseException.class,
+                    () -> second.execute("k", () -> new StoredResponse("abc", 200, Integer.toString(runs.incrementAndGet()))));
+            return new StoredResponse("abc", 200, "1");
+        });
+
+        assertFalse(outcome.replayed());
+        IdempotentRequests.Outcome retry = second.execute("k", () -> new StoredResponse("abc", 200, "2"));
+        assertTrue(retry.replayed());
+        assertEquals("1", retry.response().body());
+        assertEquals(1, runs.get());
+    }
+}
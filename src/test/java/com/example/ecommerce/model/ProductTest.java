@@ -1,5 +1,8 @@
 package com.example.ecommerce.model;
 
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -113,4 +116,42 @@ class ProductTest {
         assertEquals("High-performance laptop", product.getDescription());
         assertEquals(1299.99, product.getPrice(), 0.001);
     }
+
+    @Test
+    void testPriceIsKeptInMinorUnits() {
+        Product product = new Product();
+        product.setPrice(0.1 + 0.2);
+        assertEquals(30, product.getPriceMinor());
+        assertEquals("USD", product.getCurrency());
+    }
+
+    @Test
+    void testJsonCarriesExactPriceAndCurrency() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Product product = new Product();
+        product.setName("Laptop");
+        product.setPriceMinor(129999);
+        product.setCurrency("EUR");
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(product));
+
+        assertEquals("1299.99", json.get("price").asText());
+        assertEquals(129999, json.get("priceMinor").asLong());
+        assertEquals("EUR", json.get("currency").asText());
+    }
+
+    @Test
+    void testJsonPriceIsParsedExactly() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        Product fromNumber = mapper.readValue("{\"name\":\"A\",\"price\":19.99,\"priceMinor\":1}", Product.class);
+        Product fromString = mapper.readValue("{\"name\":\"A\",\"price\":\"50\",\"currency\":\"GBP\"}", Product.class);
+
+        // priceMinor is read-only, so the decimal price wins
+        assertEquals(1999, fromNumber.getPriceMinor());
+        assertEquals(5000, fromString.getPriceMinor());
+        assertEquals("GBP", fromString.getCurrency());
+        assertThrows(JsonMappingException.class,
+                () -> mapper.readValue("{\"price\":19.999}", Product.class));
+    }
 }
@@ -0,0 +1,61 @@
+package com.example.ecommerce.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs db/price-minor-units.sql against a PRODUCT table in the layout that
+ * predates minor units, in its own in-memory database.
+ */
+class PriceMinorUnitsMigrationTest {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createLegacyTable() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:price-migration;DB_CLOSE_DELAY=-1", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE PRODUCT (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "description VARCHAR(255), price DOUBLE, version BIGINT DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IDX_PRODUCT_PRICE_ID ON PRODUCT (price, id)");
+        jdbcTemplate.update("INSERT INTO PRODUCT (id, name, price) VALUES (1, 'Laptop', 1299.99), "
+                + "(2, 'Cable', 0.1 + 0.2), (3, 'Unpriced', NULL)");
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void testConvertsPricesToMinorUnits() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/price-minor-units.sql")).execute(dataSource);
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, price_minor, currency, version FROM PRODUCT ORDER BY id");
+        assertEquals(129999L, rows.get(0).get("PRICE_MINOR"));
+        assertEquals(30L, rows.get(1).get("PRICE_MINOR"));
+        assertEquals(0L, rows.get(2).get("PRICE_MINOR"));
+        assertEquals("USD", rows.get(0).get("CURRENCY"));
+        // The representation changed, so every version (and ETag) moves on
+        assertEquals(1L, rows.get(0).get("VERSION"));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'PRODUCT' AND COLUMN_NAME = 'PRICE'", Integer.class));
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM PRODUCT WHERE price_minor >= 100 ORDER BY price_minor, id", String.class);
+        assertTrue(plan.contains("IDX_PRODUCT_PRICE_ID"), plan);
+    }
+}
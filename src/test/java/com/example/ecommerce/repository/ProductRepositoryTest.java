@@ -5,6 +5,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -19,6 +21,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         productRepository.deleteAll();
@@ -253,4 +258,94 @@ class ProductRepositoryTest {
 
         assertEquals(longDescription, savedProduct.getDescription());
     }
+
+    @Test
+    void testFindByIdGreaterThan_ReturnsKeysetPage() {
+        Product product1 = new Product();
+        product1.setName("Product 1");
+        product1.setPrice(10.0);
+        Long id1 = productRepository.save(product1).getId();
+
+        Product product2 = new Product();
+        product2.setName("Product 2");
+        product2.setPrice(20.0);
+        Long id2 = productRepository.save(product2).getId();
+
+        Product product3 = new Product();
+        product3.setName("Product 3");
+        product3.setPrice(30.0);
+        Long id3 = productRepository.save(product3).getId();
+
+        List<Product> firstPage = productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        assertEquals(List.of(id1, id2), firstPage.stream().map(Product::getId).toList());
+
+        List<Product> secondPage = productRepository.findByIdGreaterThanOrderByIdAsc(id2, Limit.of(2));
+        assertEquals(List.of(id3), secondPage.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void testKeysetPageUsesPrimaryKeySeek() {
+        productRepository.findByIdGreaterThanOrderByIdAsc(100L, Limit.of(20));
+        // Limit is sent as an offset of 0 and a row count
+        String plan = explainLastQuery(100L, 0, 20);
+
+        assertTrue(plan.contains("PRIMARY_KEY_1: ID >"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void testPriceRangeListingUsesPriceIndex() {
+        productRepository.findKeysetPage("price", 10.0, 100.0, 2000L, 7L, 21);
+        String plan = explainLastQuery(1000L, 10000L, 2000L, 2000L, 7L, 21);
+
+        assertTrue(plan.contains("IDX_PRODUCT_PRICE_ID"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    @Test
+    void testFindKeysetPage_PriceOrderWithContinuation() {
+        Product cheap = new Product();
+        cheap.setName("Cable");
+        cheap.setPrice(9.99);
+        productRepository.save(cheap);
+
+        Product first = new Product();
+        first.setName("Mouse");
+        first.setPrice(29.99);
+        Long firstId = productRepository.save(first).getId();
+
+        Product second = new Product();
+        second.setName("Hub");
+        second.setPrice(29.99);
+        Long secondId = productRepository.save(second).getId();
+
+        Product expensive = new Product();
+        expensive.setName("Laptop");
+        expensive.setPrice(1299.99);
+        productRepository.save(expensive);
+
+        List<Product> page = productRepository.findKeysetPage("price", 20.0, 100.0, null, null, 10);
+        assertEquals(List.of(firstId, secondId), page.stream().map(Product::getId).toList());
+
+        List<Product> next = productRepository.findKeysetPage("price", 20.0, 100.0, 2999L, firstId, 10);
+        assertEquals(List.of(secondId), next.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void testNameOrderedListingUsesNameIndex() {
+        productRepository.findKeysetPage("name", null, null, "M", 7L, 21);
+        String plan = explainLastQuery("M", "M", 7L, 21);
+
+        assertTrue(plan.contains("IDX_PRODUCT_NAME_ID"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
+
+    // EXPLAIN of the statement Hibernate generated for the last repository
+    // call, with its parameters bound in order
+    private String explainLastQuery(Object... parameters) {
+        String sql = RecordingStatementInspector.lastSql();
+        assertNotNull(sql);
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
 }
@@ -0,0 +1,23 @@
+package com.example.ecommerce.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Remembers the last SQL statement Hibernate prepared on each thread, so tests
+ * can EXPLAIN the query a repository method really sends. Registered for the
+ * test profile in application-test.properties.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        LAST_SQL.set(sql);
+        return sql;
+    }
+
+    public static String lastSql() {
+        return LAST_SQL.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPatch;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductNameTrieTest {
+
+    @Autowired
+    private ProductNameTrie productNameTrie;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testSuggestIsCaseInsensitiveAndAlphabetical() {
+        save("Smartphone");
+        save("Smart Watch");
+        save("smart tv");
+        save("Laptop");
+
+        assertEquals(List.of("smart tv", "Smart Watch", "Smartphone"), productNameTrie.suggest("SMA", 10));
+        assertEquals(List.of("smart tv", "Smart Watch"), productNameTrie.suggest("smart ", 10));
+        assertEquals(List.of("Laptop"), productNameTrie.suggest("l", 10));
+        assertTrue(productNameTrie.suggest("tablet", 10).isEmpty());
+    }
+
+    @Test
+    void testSuggestHonoursLimit() {
+        save("Cable A");
+        save("Cable B");
+        save("Cable C");
+
+        assertEquals(List.of("Cable A", "Cable B"), productNameTrie.suggest("cable", 2));
+    }
+
+    @Test
+    void testSharedNameStaysUntilLastProductIsGone() {
+        Product first = save("Mouse");
+        Product second = save("Mouse");
+
+        assertEquals(List.of("Mouse"), productNameTrie.suggest("mo", 10));
+
+        productRepository.deleteById(first.getId());
+        assertEquals(List.of("Mouse"), productNameTrie.suggest("mo", 10));
+
+        productRepository.deleteById(second.getId());
+        assertTrue(productNameTrie.suggest("mo", 10).isEmpty());
+    }
+
+    @Test
+    void testTrieFollowsRenames() {
+        Product product = save("Laptop");
+
+        ProductPatch patch = new ProductPatch();
+        patch.setName("Notebook");
+        productService.patchProduct(product.getId(), patch);
+
+        assertTrue(productNameTrie.suggest("lap", 10).isEmpty());
+        assertEquals(List.of("Notebook"), productNameTrie.suggest("note", 10));
+
+        ProductPatch pricePatch = new ProductPatch();
+        pricePatch.setPriceMinor(500L);
+        productService.patchProduct(product.getId(), pricePatch);
+        assertEquals(List.of("Notebook"), productNameTrie.suggest("note", 10));
+    }
+
+    @Test
+    void testIgnoresEventsDeliveredOutOfOrder() {
+        Long id = save("Laptop").getId();
+
+        productNameTrie.onProductChange(ProductChangeEvent.updated(version(id, "Ultrabook", 2L)));
+        productNameTrie.onProductChange(ProductChangeEvent.updated(version(id, "Notebook", 1L)));
+        assertEquals(List.of("Ultrabook"), productNameTrie.suggest("", 10));
+
+        productNameTrie.onProductChange(ProductChangeEvent.deleted(id));
+        productNameTrie.onProductChange(ProductChangeEvent.updated(version(id, "Ultrabook", 3L)));
+        assertTrue(productNameTrie.suggest("", 10).isEmpty());
+    }
+
+    private static Product version(Long id, String name, Long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setVersion(version);
+        return product;
+    }
+
+    private Product save(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("Description");
+        product.setPrice(10.0);
+        return productRepository.save(product);
+    }
+}
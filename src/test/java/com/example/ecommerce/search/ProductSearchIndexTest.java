@@ -0,0 +1,118 @@
+package com.example.ecommerce.search;
+
+import com.example.ecommerce.event.ProductChangeEvent;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPatch;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(Set.of("wireless", "noise", "cancelling", "128gb"),
+                ProductSearchIndex.tokenize("Wireless, noise-cancelling 128GB wireless"));
+        assertTrue(ProductSearchIndex.tokenize("  --  ").isEmpty());
+        assertTrue(ProductSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void testSearchIntersectsTerms() {
+        Product headphones = save("Headphones", "Noise-cancelling wireless headphones");
+        Product mouse = save("Mouse", "Wireless mouse");
+        save("Laptop", "High-performance laptop");
+
+        assertArrayEquals(new long[] {headphones.getId(), mouse.getId()}, productSearchIndex.search("wireless", 10));
+        assertArrayEquals(new long[] {mouse.getId()}, productSearchIndex.search("WIRELESS mouse", 10));
+        assertArrayEquals(new long[0], productSearchIndex.search("wireless laptop", 10));
+        assertArrayEquals(new long[0], productSearchIndex.search("tablet", 10));
+        assertArrayEquals(new long[] {headphones.getId()}, productSearchIndex.search("wireless", 1));
+    }
+
+    @Test
+    void testIndexFollowsUpdatesAndDeletes() {
+        Product product = save("Laptop", "High-performance laptop");
+
+        product.setName("Notebook");
+        productRepository.save(product);
+        assertArrayEquals(new long[] {product.getId()}, productSearchIndex.search("notebook", 10));
+        assertArrayEquals(new long[] {product.getId()}, productSearchIndex.search("laptop", 10));
+
+        ProductPatch patch = new ProductPatch();
+        patch.setDescription("Ultralight");
+        productService.patchProduct(product.getId(), patch);
+        assertArrayEquals(new long[0], productSearchIndex.search("laptop", 10));
+        assertArrayEquals(new long[] {product.getId()}, productSearchIndex.search("notebook ultralight", 10));
+
+        productRepository.deleteById(product.getId());
+        assertArrayEquals(new long[0], productSearchIndex.search("notebook", 10));
+        assertEquals(0, productSearchIndex.size());
+    }
+
+    @Test
+    void testIgnoresEventsDeliveredOutOfOrder() {
+        Long id = save("Laptop", "High-performance laptop").getId();
+
+        productSearchIndex.onProductChange(ProductChangeEvent.updated(version(id, "Ultrabook", 2L)));
+        productSearchIndex.onProductChange(ProductChangeEvent.updated(version(id, "Notebook", 1L)));
+        assertArrayEquals(new long[] {id}, productSearchIndex.search("ultrabook", 10));
+        assertArrayEquals(new long[0], productSearchIndex.search("notebook", 10));
+
+        productSearchIndex.onProductChange(ProductChangeEvent.deleted(id));
+        productSearchIndex.onProductChange(ProductChangeEvent.updated(version(id, "Revived", 3L)));
+        assertArrayEquals(new long[0], productSearchIndex.search("revived", 10));
+        assertEquals(0, productSearchIndex.size());
+    }
+
+    @Test
+    void testRebuildLoadsExistingProducts() {
+        Product product = save("Tablet", "10-inch tablet");
+
+        productSearchIndex.rebuild();
+
+        assertEquals(1, productSearchIndex.size());
+        assertArrayEquals(new long[] {product.getId()}, productSearchIndex.search("tablet", 10));
+    }
+
+    private static Product version(Long id, String name, Long version) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(10.0);
+        product.setVersion(version);
+        return product;
+    }
+
+    private Product save(String name, String description) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(10.0);
+        return productRepository.save(product);
+    }
+}
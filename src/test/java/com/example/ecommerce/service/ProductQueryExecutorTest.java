@@ -0,0 +1,94 @@
+package com.example.ecommerce.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductQueryExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ProductQueryExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void testRejectsWhenPoolAndQueueAreFull() throws Exception {
+        executor = new ProductQueryExecutor(1, 1, Duration.ofSeconds(10), false, meterRegistry);
+        CompletableFuture<String> running = executor.submit(this::blockUntilReleased);
+        CompletableFuture<String> queued = executor.submit(this::blockUntilReleased);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "rejected"));
+        assertEquals(1.0, meterRegistry.get("product.query.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "productQuery").gauge().value());
+
+        release.countDown();
+        assertEquals("done", running.get(10, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testVirtualThreadsKeepTheSameBounds() throws Exception {
+        executor = new ProductQueryExecutor(1, 1, Duration.ofSeconds(10), true, meterRegistry);
+        CompletableFuture<Boolean> running = executor.submit(() -> {
+            blockUntilReleased();
+            return Thread.currentThread().isVirtual();
+        });
+        CompletableFuture<String> queued = executor.submit(this::blockUntilReleased);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> "rejected"));
+        assertEquals(1.0, meterRegistry.get("product.query.rejected").counter().count());
+        // The virtual threads start on their own schedule
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (gauge("executor.active") < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1.0, gauge("executor.active"));
+        assertEquals(1.0, gauge("executor.queued"));
+
+        release.countDown();
+        assertTrue(running.get(10, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(10, TimeUnit.SECONDS));
+        assertEquals("accepted", executor.submit(() -> "accepted").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowQueryTimesOut() {
+        executor = new ProductQueryExecutor(1, 1, Duration.ofMillis(50), false, meterRegistry);
+
+        CompletableFuture<String> slow = executor.submit(this::blockUntilReleased);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> slow.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(1.0, meterRegistry.get("product.query.timeouts").counter().count());
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("name", "productQuery").gauge().value();
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.cache.ProductCache;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPage;
+import com.example.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent identical reads through ProductService reach the repository
+ * once. The repository is wrapped so the first query is held until every
+ * caller is parked, either inside it or waiting for its result.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceTest {
+
+    private static final int CALLERS = 16;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productCache.invalidateAll();
+    }
+
+    @AfterEach
+    void restoreRepository() {
+        release.countDown();
+        ReflectionTestUtils.setField(target(), "productRepository", productRepository);
+    }
+
+    @Test
+    void testConcurrentReadsOfOneProductRunOneQuery() throws Exception {
+        Long id = save("Laptop").getId();
+        productCache.invalidateAll();
+        countQueries("findById");
+
+        for (Optional<Product> product : runConcurrently(() -> productService.getProductById(id))) {
+            assertEquals("Laptop", product.orElseThrow().getName());
+        }
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testConcurrentRequestsForOnePageRunOneQuery() throws Exception {
+        save("Laptop");
+        save("Mouse");
+        save("Keyboard");
+        countQueries("findByIdGreaterThanOrderByIdAsc");
+
+        for (ProductPage page : runConcurrently(() -> productService.getProductPage(null, 2, null, null, "id,asc"))) {
+            assertEquals(2, page.getItems().size());
+            assertNotNull(page.getNextCursor());
+        }
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testConcurrentCatalogReadsRunOneQuery() throws Exception {
+        save("Laptop");
+        countQueries("findAll");
+
+        AtomicInteger caller = new AtomicInteger();
+        List<List<Product>> catalogs = runConcurrently(() -> caller.incrementAndGet() % 2 == 0
+                ? productService.getAllProducts()
+                : productService.retrieveAllProducts());
+        for (List<Product> catalog : catalogs) {
+            assertEquals(1, catalog.size());
+        }
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void testSequentialPageRequestsEachQuery() {
+        save("Laptop");
+        countQueries("findByIdGreaterThanOrderByIdAsc");
+        release.countDown();
+
+        productService.getProductPage(null, 2, null, null, "id,asc");
+        productService.getProductPage(null, 2, null, null, "id,asc");
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void testForEachProductBatchHoldsNoTransactionBetweenQueries() {
+        for (int i = 0; i < 5; i++) {
+            save("Product " + i);
+        }
+        countQueries("findByIdGreaterThanOrderByIdAsc");
+        release.countDown();
+
+        List<String> names = new ArrayList<>();
+        productService.forEachProductBatch(2, batch -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            batch.forEach(product -> names.add(product.getName()));
+        });
+        assertEquals(List.of("Product 0", "Product 1", "Product 2", "Product 3", "Product 4"), names);
+        assertEquals(3, queries.get());
+    }
+
+    // Swaps in a repository that counts calls of the named method and holds
+    // each until released
+    private void countQueries(String method) {
+        ProductRepository counting = (ProductRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {ProductRepository.class}, (proxy, invoked, args) -> {
+                    if (invoked.getName().equals(method)) {
+                        queries.incrementAndGet();
+                        assertTrue(release.await(10, TimeUnit.SECONDS));
+                    }
+                    try {
+                        return invoked.invoke(productRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        ReflectionTestUtils.setField(target(), "productRepository", counting);
+    }
+
+    // The bean is proxied for @Transactional; the field lives on the target
+    private ProductService target() {
+        return AopTestUtils.getTargetObject(productService);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> call) throws Exception {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(call));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!allParked(threads) && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean allParked(List<Thread> threads) {
+        if (threads.size() < CALLERS) {
+            return false;
+        }
+        for (Thread thread : threads) {
+            Thread.State state = thread.getState();
+            if (state != Thread.State.WAITING && state != Thread.State.TIMED_WAITING && state != Thread.State.BLOCKED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Product save(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(10.0);
+        return productRepository.save(product);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputSanitizerTest {
+
+    @Test
+    void testCleanInputIsReturnedAsIs() {
+        String input = "Fast, light <b>pro</b> laptop: 16GB";
+        assertSame(input, InputSanitizer.sanitize(input));
+        assertEquals("padded", InputSanitizer.sanitize("  padded \n"));
+        assertEquals("", InputSanitizer.sanitize((String) null));
+    }
+
+    @Test
+    void testRemovesTokensAndTrims() {
+        assertEquals("alert(1)", InputSanitizer.sanitize("<script>alert(1)</script>"));
+        assertEquals("go alert(1)", InputSanitizer.sanitize("go javascript:alert(1)"));
+        assertEquals("x", InputSanitizer.sanitize(" <script> x </script> "));
+        // Case and partial tokens are left alone, as before
+        assertEquals("<SCRIPT>javascript", InputSanitizer.sanitize("<SCRIPT>javascript"));
+    }
+
+    @Test
+    void testRemovesTokensFormedByRemovals() {
+        assertEquals("alert(1)", InputSanitizer.sanitize("<scr<script>ipt>alert(1)"));
+        assertEquals("", InputSanitizer.sanitize("java<script>script:"));
+        assertEquals("a", InputSanitizer.sanitize("<scr<scr<script>ipt>ipt>a</scr</script>ipt>"));
+    }
+
+    @Test
+    void testCharSequenceAndReaderMatchString() throws IOException {
+        String[] inputs = {"", " plain ", "<script>x</script>", "<scr<script>ipt>javascript:y", "a:b>c"};
+        for (String input : inputs) {
+            String expected = InputSanitizer.sanitize(input);
+            assertEquals(expected, InputSanitizer.sanitize(new StringBuilder(input)));
+            assertEquals(expected, InputSanitizer.sanitize(new StringReader(input)));
+        }
+        String large = "<script>" + "description ".repeat(2_000) + "javascript:";
+        assertEquals(large.substring(8, large.length() - 11).trim(), InputSanitizer.sanitize(new StringReader(large)));
+    }
+}
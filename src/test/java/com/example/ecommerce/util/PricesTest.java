@@ -0,0 +1,62 @@
+package com.example.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricesTest {
+
+    @Test
+    void testParsesDecimalsIntoMinorUnits() {
+        assertEquals(129999, Prices.parseMinor("1299.99"));
+        assertEquals(1250, Prices.parseMinor("12.5"));
+        assertEquals(1200, Prices.parseMinor("12"));
+        assertEquals(1200, Prices.parseMinor("12."));
+        assertEquals(99, Prices.parseMinor(".99"));
+        assertEquals(-50, Prices.parseMinor("-0.50"));
+        assertEquals(100, Prices.parseMinor("+1"));
+    }
+
+    @Test
+    void testParsesSliceOfCharBuffer() {
+        char[] buffer = "{\"price\":19.90}".toCharArray();
+        assertEquals(1990, Prices.parseMinor(buffer, 9, 5));
+    }
+
+    @Test
+    void testRejectsMalformedAmounts() {
+        String[] malformed = {"", "-", ".", "1.999", "1e3", "1,00", "12a", "1.2.3", " 1", "1234567890123456"};
+        for (String value : malformed) {
+            assertThrows(NumberFormatException.class, () -> Prices.parseMinor(value), value);
+        }
+    }
+
+    @Test
+    void testFormatsWithTwoDecimals() {
+        assertEquals("1299.99", Prices.format(129999));
+        assertEquals("999.00", Prices.format(99900));
+        assertEquals("-0.50", Prices.format(-50));
+        assertEquals(new BigDecimal("0.05"), Prices.toDecimal(5));
+    }
+
+    @Test
+    void testConvertsDoubles() {
+        // 0.1 + 0.2 is not 0.3 as a double, but is 30 cents
+        assertEquals(30, Prices.toMinor(0.1 + 0.2));
+        assertEquals(129999, Prices.toMinor(1299.99));
+        assertEquals(1299.99, Prices.toDouble(129999));
+        assertEquals(1000, Prices.ceilMinor(9.999));
+        assertEquals(999, Prices.floorMinor(9.999));
+        assertEquals(2000, Prices.ceilMinor(20.0));
+        assertEquals(2000, Prices.floorMinor(20.0));
+    }
+
+    @Test
+    void testClampsBoundsOutsideTheLongRange() {
+        assertEquals(Long.MAX_VALUE, Prices.floorMinor(1e300));
+        assertEquals(Long.MAX_VALUE, Prices.ceilMinor(1e17));
+        assertEquals(Long.MIN_VALUE, Prices.ceilMinor(-1e300));
+    }
+}
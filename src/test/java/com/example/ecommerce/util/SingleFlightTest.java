@@ -0,0 +1,111 @@
+package com.example.ecommerce.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("product", meterRegistry);
+        int callers = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Laptop";
+                })));
+            }
+            // Hold the load until every other caller has joined it
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (count("coalesced") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Laptop", result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("executed"));
+        assertEquals(callers - 1.0, count("coalesced"));
+    }
+
+    @Test
+    void testSequentialCallsEachLoad() {
+        SingleFlight<Long, String> flight = new SingleFlight<>("product", meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute(1L, () -> "v" + loads.incrementAndGet());
+        assertEquals("v2", flight.execute(1L, () -> "v" + loads.incrementAndGet()));
+        assertEquals(2.0, count("executed"));
+    }
+
+    @Test
+    void testWaitingCallersSeeTheLoaderException() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("product", meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                await(release);
+                throw new IllegalStateException("database down");
+            }));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (count("executed") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Future<String> follower = executor.submit(() -> flight.execute(1L, () -> "not called"));
+            while (count("coalesced") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : List.of(leader, follower)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A failed load is not remembered
+        assertEquals("recovered", flight.execute(1L, () -> "recovered"));
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("single.flight.loads").tag("flight", "product").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
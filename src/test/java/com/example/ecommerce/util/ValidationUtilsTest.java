@@ -0,0 +1,19 @@
+package com.example.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationUtilsTest {
+
+    @Test
+    void testPriceRangeIsCheckedOnTheDouble() {
+        assertTrue(ValidationUtils.isValidPrice(999999.99));
+        assertTrue(ValidationUtils.validateProductPrice(0.01));
+        // Not rounded to cents first, unlike ProductValidator.validatePrice
+        assertTrue(ValidationUtils.isValidPrice(0.004));
+        assertFalse(ValidationUtils.isValidPrice(999999.994));
+        assertFalse(ValidationUtils.validateProductPrice(0.0));
+        assertFalse(ValidationUtils.isValidPrice(Double.NaN));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ecommerce.validation;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.model.ProductPatch;
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductValidatorTest {
+
+    @Test
+    void testValidProduct() {
+        assertNull(ProductValidator.validate(product("Laptop", 1299.99)));
+        assertNull(ProductValidator.validate(product("x".repeat(100), 999999.99)));
+    }
+
+    @Test
+    void testFirstFailingRuleWins() {
+        assertEquals(ValidationError.PRODUCT_MISSING, ProductValidator.validate((Product) null));
+        assertEquals(ValidationError.NAME_EMPTY, ProductValidator.validate(product(null, 0.0)));
+        assertEquals(ValidationError.NAME_EMPTY, ProductValidator.validate(product(" \t\n", 10.0)));
+        assertEquals(ValidationError.PRICE_NOT_POSITIVE, ProductValidator.validate(product("x".repeat(101), 0.0)));
+        assertEquals(ValidationError.NAME_TOO_LONG, ProductValidator.validate(product("x".repeat(101), 10.0)));
+        assertEquals(ValidationError.PRICE_TOO_HIGH, ProductValidator.validate(product("Laptop", 1_000_000.0)));
+        assertEquals("price.too_high", ValidationError.PRICE_TOO_HIGH.getCode());
+        assertEquals("Product name cannot exceed 100 characters", ValidationError.NAME_TOO_LONG.getMessage());
+    }
+
+    @Test
+    void testRequireValidThrowsPreallocatedStacklessException() {
+        ProductValidator.requireValid(product("Laptop", 10.0));
+
+        ProductValidationException first = assertThrows(ProductValidationException.class,
+                () -> ProductValidator.requireValid(product("Laptop", -1.0)));
+        ProductValidationException second = assertThrows(ProductValidationException.class,
+                () -> ProductValidator.requireValid(product("Mouse", 0.0)));
+        assertSame(first, second);
+        assertEquals(ValidationError.PRICE_NOT_POSITIVE, first.getError());
+        assertEquals(0, first.getStackTrace().length);
+    }
+
+    @Test
+    void testPatchChecksOnlyPresentFields() {
+        assertNull(ProductValidator.validate(new ProductPatch()));
+
+        ProductPatch patch = new ProductPatch();
+        patch.setPriceMinor(-100L);
+        assertEquals(ValidationError.PRICE_NOT_POSITIVE, ProductValidator.validate(patch));
+        patch.setName(" ");
+        assertEquals(ValidationError.NAME_EMPTY, ProductValidator.validate(patch));
+    }
+
+    @Test
+    void testPriceIsCheckedInMinorUnits() {
+        assertNull(ProductValidator.validate(product("Cable", 0.01)));
+        assertEquals(ValidationError.PRICE_NOT_POSITIVE, ProductValidator.validate(product("Cable", 0.004)));
+        assertEquals(ValidationError.PRICE_TOO_HIGH, ProductValidator.validatePriceMinor(100_000_000L));
+        assertNull(ProductValidator.validatePrice(999999.99));
+    }
+
+    @Test
+    void testCurrencyMustBeThreeLetterCode() {
+        Product product = product("Laptop", 10.0);
+        product.setCurrency("eur");
+        assertEquals(ValidationError.CURRENCY_INVALID, ProductValidator.validate(product));
+        product.setCurrency("EUR");
+        assertNull(ProductValidator.validate(product));
+
+        ProductPatch patch = new ProductPatch();
+        patch.setCurrency("EURO");
+        assertEquals(ValidationError.CURRENCY_INVALID, ProductValidator.validate(patch));
+    }
+
+    @Test
+    void testValidateName() {
+        assertNull(ProductValidator.validateName("Gaming Laptop-2_X"));
+        assertEquals(ValidationError.NAME_EMPTY, ProductValidator.validateName(""));
+        assertEquals(ValidationError.NAME_TOO_LONG, ProductValidator.validateName("a".repeat(101)));
+        assertEquals(ValidationError.NAME_INVALID_CHARACTERS, ProductValidator.validateName("Laptop <b>"));
+        assertEquals(ValidationError.NAME_INVALID_CHARACTERS, ProductValidator.validateName("Café"));
+    }
+
+    @Test
+    void testNameCharactersMatchTheRegex() {
+        Pattern regex = Pattern.compile("[a-zA-Z0-9\\s\\-_]");
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            String value = String.valueOf((char) c);
+            assertEquals(regex.matcher(value).matches(), NameCharacters.matches((char) c), "char " + c);
+        }
+        assertFalse(NameCharacters.matchesAll(""));
+    }
+
+    private static Product product(String name, double price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(price);
+        return product;
+    }
+}